@@ -0,0 +1,57 @@
+package io.analog.alex.benchmarks;
+
+import io.analog.alex.functional.monads.Either;
+import io.analog.alex.http.Http;
+import io.analog.alex.http.model.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full round trips against the {@link LocalServer}: request building, execution, body reading and
+ * binding. Throughput is reported in operations per millisecond and latency as sampled percentiles.
+ *
+ * @author Miguel Alexandre
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {Payloads.QUIET_LOGGING, Payloads.SERVER_NO_DELAY})
+public class ExecuteBenchmark {
+
+    @Benchmark
+    public Either<IOException, Response> get(LocalServer server) {
+        return Http.Get(server.url("/person")).execute();
+    }
+
+    @Benchmark
+    public Payloads.Person getAndParseAs(LocalServer server) {
+        return Http.Get(server.url("/person")).execute().successful().parseAs(Payloads.Person.class);
+    }
+
+    @Benchmark
+    public Either<IOException, Response> postJson(LocalServer server) {
+        return Http.Post(server.url("/echo")).addBodyAsJson(new Payloads.Person()).execute();
+    }
+
+    @Benchmark
+    public List<Either<IOException, Response>> all(LocalServer server) {
+        return Http.all(
+                Http.Get(server.url("/person")),
+                Http.Get(server.url("/person")),
+                Http.Get(server.url("/person")),
+                Http.Get(server.url("/person")),
+                Http.Get(server.url("/persons")))
+                .toList()
+                .blockingGet();
+    }
+}
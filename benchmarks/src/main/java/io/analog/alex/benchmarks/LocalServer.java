@@ -0,0 +1,69 @@
+package io.analog.alex.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An in-process HTTP server on an ephemeral local port, shared by the benchmarks that go over the wire,
+ * so that the measurements cover the client rather than a remote network.
+ *
+ * @author Miguel Alexandre
+ */
+@State(Scope.Benchmark)
+public class LocalServer {
+    private static final byte[] PERSON = Payloads.person(1).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PERSONS = Payloads.persons(100).getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService workers;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/person", exchange -> reply(exchange, 200, PERSON));
+        server.createContext("/persons", exchange -> reply(exchange, 200, PERSONS));
+        server.createContext("/echo", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] buffer = new byte[8192];
+                while (in.read(buffer) != -1) {
+                    // drain the request body
+                }
+            }
+            reply(exchange, 201, PERSON);
+        });
+        server.setExecutor(workers);
+        server.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        server.stop(0);
+        workers.shutdown();
+    }
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void reply(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.analog.alex.benchmarks;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import io.analog.alex.http.model.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON binding of a {@link io.analog.alex.http.model.Response} against the former approach
+ * of building a new Gson and an intermediate JsonElement tree on every call, binding from the raw bytes of a
+ * fresh response each time; binding from the JsonElement tree a response memoizes is measured apart.
+ * Run with <code>-prof gc</code> to compare the allocation rate.
+ *
+ * @author Miguel Alexandre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = Payloads.QUIET_LOGGING)
+public class ParsingBenchmark {
+    private byte[] one;
+    private byte[] many;
+    private Response parsed;
+
+    @Setup
+    public void setUp() throws IOException {
+        one = Payloads.person(1).getBytes(StandardCharsets.UTF_8);
+        many = Payloads.persons(100).getBytes(StandardCharsets.UTF_8);
+        parsed = Payloads.response(one);
+        parsed.parseAsGson();
+    }
+
+    @Benchmark
+    public Payloads.Person parseAs() throws IOException {
+        return Payloads.response(one).parseAs(Payloads.Person.class);
+    }
+
+    @Benchmark
+    public Payloads.Person parseAsFromTree() {
+        return parsed.parseAs(Payloads.Person.class);
+    }
+
+    @Benchmark
+    public Payloads.Person parseAsTreeBaseline() throws IOException {
+        return new GsonBuilder().create().fromJson(new JsonParser().parse(Payloads.response(one).getContent()), Payloads.Person.class);
+    }
+
+    @Benchmark
+    public Collection<Payloads.Person> parseAsCollectionOf() throws IOException {
+        return Payloads.response(many).parseAsCollectionOf(Payloads.Person.class);
+    }
+
+    @Benchmark
+    public Collection<Payloads.Person> parseAsCollectionOfTreeBaseline() throws IOException {
+        return new GsonBuilder().create().fromJson(new JsonParser().parse(Payloads.response(many).getContent()).getAsJsonArray(),
+                TypeToken.getParameterized(ArrayList.class, Payloads.Person.class).getType());
+    }
+
+    @Benchmark
+    public String getContent() throws IOException {
+        return Payloads.response(many).getContent();
+    }
+}
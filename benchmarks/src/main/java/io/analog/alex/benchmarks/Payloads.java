@@ -0,0 +1,69 @@
+package io.analog.alex.benchmarks;
+
+import io.analog.alex.http.model.Response;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+
+import java.io.IOException;
+
+/* ======
+ *  Payloads shared by the benchmarks
+ */
+public final class Payloads {
+    // keep the library's debug logging out of the measurements
+    public static final String QUIET_LOGGING = "-Dlog4j.configurationFile=log4j2-benchmarks.xml";
+    // the JDK server otherwise suffers from Nagle / delayed ACK stalls of ~40ms per exchange
+    public static final String SERVER_NO_DELAY = "-Dsun.net.httpserver.nodelay=true";
+
+    // hide constructor
+    private Payloads() {
+    }
+
+    public static String person(long id) {
+        return "{\"id\":" + id + ",\"name\":\"Miguel Alexandre\",\"age\":27,"
+                + "\"job\":\"Software Dev\",\"details\":\"Interest in Computer Science\"}";
+    }
+
+    public static String persons(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append(person(i));
+        }
+        return json.append(']').toString();
+    }
+
+    // a Response as the library would build it from the wire
+    public static Response response(String json) throws IOException {
+        BasicHttpResponse httpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        httpResponse.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+        return new Response(httpResponse) {
+        };
+    }
+
+    // ... from its raw bytes, as a fresh Response has nothing parsed or decoded yet
+    public static Response response(byte[] json) throws IOException {
+        BasicHttpResponse httpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        httpResponse.setEntity(new ByteArrayEntity(json, ContentType.APPLICATION_JSON));
+        return new Response(httpResponse) {
+        };
+    }
+
+    public static class Person {
+        private Long id;
+        private String name;
+        private Integer age;
+        private String job;
+        private String details;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
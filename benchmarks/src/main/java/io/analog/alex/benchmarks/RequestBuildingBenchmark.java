@@ -0,0 +1,62 @@
+package io.analog.alex.benchmarks;
+
+import io.analog.alex.http.Http;
+import io.analog.alex.http.methods.Method;
+import io.analog.alex.http.model.Form;
+import io.analog.alex.http.model.UrlEncodedForm;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.http.entity.ContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request building without any I/O: query parameter chains and the encoding of form bodies.
+ * Run with <code>-prof gc</code> to compare the allocation rate.
+ *
+ * @author Miguel Alexandre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = Payloads.QUIET_LOGGING)
+public class RequestBuildingBenchmark {
+    private static final int PARAMETERS = 30;
+
+    @Benchmark
+    public URI addParameterChain() {
+        Method get = Http.Get("http://127.0.0.1:8080/search");
+        for (int i = 0; i < PARAMETERS; i++) {
+            get.addParameter("filter" + i, "value " + i);
+        }
+        return get.getURI();
+    }
+
+    @Benchmark
+    public void formEncoding() throws IOException {
+        new Form()
+                .addPart("key", "value")
+                .addPart("json", Payloads.person(1), ContentType.APPLICATION_JSON)
+                .addPart("bytes", Payloads.person(2).getBytes(), ContentType.DEFAULT_BINARY, "person.json")
+                .set()
+                .writeTo(NullOutputStream.NULL_OUTPUT_STREAM);
+    }
+
+    @Benchmark
+    public void urlEncodedFormEncoding() throws IOException {
+        UrlEncodedForm form = new UrlEncodedForm();
+        for (int i = 0; i < PARAMETERS; i++) {
+            form.addPart("field" + i, "value " + i);
+        }
+        form.set().writeTo(NullOutputStream.NULL_OUTPUT_STREAM);
+    }
+}
@@ -0,0 +1,88 @@
+package io.analog.alex.benchmarks;
+
+import io.analog.alex.functional.monads.Either;
+import io.analog.alex.http.Http;
+import io.analog.alex.http.HttpClientConfig;
+import io.analog.alex.http.model.Response;
+import io.analog.alex.http.transport.Transport;
+import io.analog.alex.http.transport.Transports;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same round trips as {@link ExecuteBenchmark}, sent with each {@link Transport} against the
+ * {@link LocalServer}, to compare their throughput and (with <code>-prof gc</code>) their allocation per
+ * request. The <code>jdk</code> transport needs Java 11 or later.
+ *
+ * @author Miguel Alexandre
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {Payloads.QUIET_LOGGING, Payloads.SERVER_NO_DELAY})
+public class TransportBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"classic", "async", "jdk"})
+        public String name;
+
+        Transport transport;
+
+        @Setup(Level.Trial)
+        public void start() {
+            HttpClientConfig config = new HttpClientConfig();
+
+            switch (name) {
+                case "classic":
+                    transport = Transports.classic(config.build());
+                    break;
+                case "async":
+                    transport = Transports.async(config.buildAsync(), config.getCompression());
+                    break;
+                default:
+                    transport = Transports.jdk();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws IOException {
+            transport.close();
+        }
+    }
+
+    @Benchmark
+    public Either<IOException, Response> get(LocalServer server, Engine engine) {
+        return Http.Get(server.url("/person")).transport(engine.transport).execute();
+    }
+
+    @Benchmark
+    public Either<IOException, Response> getLarge(LocalServer server, Engine engine) {
+        return Http.Get(server.url("/persons")).transport(engine.transport).execute();
+    }
+
+    @Benchmark
+    public Either<IOException, Response> getNonBlocking(LocalServer server, Engine engine) {
+        return Http.Get(server.url("/person")).transport(engine.transport).executeNonBlocking().join();
+    }
+
+    @Benchmark
+    public Either<IOException, Response> postJson(LocalServer server, Engine engine) {
+        return Http.Post(server.url("/echo")).transport(engine.transport).addBodyAsJson(new Payloads.Person()).execute();
+    }
+}
@@ -1,6 +1,18 @@
 package io.analog.alex.http;
 
+import com.google.gson.Gson;
 import io.analog.alex.functional.monads.Either;
+import io.analog.alex.http.cache.ResponseCache;
+import io.analog.alex.http.cache.SingleFlight;
+import io.analog.alex.http.compression.Compression;
+import io.analog.alex.http.http2.Http2Client;
+import io.analog.alex.http.logging.WireLogging;
+import io.analog.alex.http.metrics.RequestMetrics;
+import io.analog.alex.http.resilience.CircuitBreakers;
+import io.analog.alex.http.resilience.Limiters;
+import io.analog.alex.http.resilience.RetryBudget;
+import io.analog.alex.http.resilience.RetryPolicy;
+import io.analog.alex.http.transport.Transport;
 import io.analog.alex.http.methods.Method;
 import io.analog.alex.http.methods.impl.Delete;
 import io.analog.alex.http.methods.impl.Get;
@@ -8,15 +20,26 @@ import io.analog.alex.http.methods.impl.Patch;
 import io.analog.alex.http.methods.impl.Post;
 import io.analog.alex.http.methods.impl.Put;
 import io.analog.alex.http.model.Response;
+import io.analog.alex.utils.GsonUtils;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
 import io.reactivex.schedulers.Schedulers;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Main point of entry for API, the Http class allows the creation of a class that extends {@link io.analog.alex.http.methods.Method}
@@ -153,34 +176,532 @@ public class Http {
      *  extras
      */
 
-    private static CloseableHttpClient client = closableHttpClient();
+    private static HttpClientConfig config = new HttpClientConfig();
+    /* === the pool behind the default client, kept along with it for its statistics === */
+    private static PoolingHttpClientConnectionManager pool = config.connectionManager();
+    private static CloseableHttpClient client = config.build(pool);
+    private static CloseableHttpAsyncClient asyncClient;
+    /* === whether the clients were built here, and so are closed here once replaced === */
+    private static boolean ownsClient = true;
+    private static boolean ownsAsyncClient;
+    private static Http2Client http2Client;
+    private static Transport transport;
+    private static Executor executor = ForkJoinPool.commonPool();
+    private static Scheduler scheduler = Schedulers.io();
+    private static ResponseCache cache;
+    private static SingleFlight singleFlight;
+    private static RequestMetrics metrics;
+    private static RequestConfig requestConfig;
+    private static Duration deadline;
+    private static RetryPolicy retryPolicy;
+    private static RetryBudget retryBudget = new RetryBudget(0.1, 10);
+    private static CircuitBreakers circuitBreakers;
+    private static Limiters limiters;
+    private static WireLogging wireLogging;
 
     /**
      * Calls all the provided request asynchronously and returns an {@link io.reactivex.Observable} that
-     * can be subscribed to.
+     * can be subscribed to. The results are emitted in the order of the requests.
      *
      * @param https a collection of HTTP requests with any combination of methods
      * @return n {@link io.reactivex.Observable} for subscription
+     * @see #allOrdered(Method...)
      */
     public static Observable<Either<IOException, Response>> all(Method... https) {
+        return allOrdered(https);
+    }
 
-        /* === create a list of Observables from each async call == */
-        List<Observable<Either<IOException, Response>>> observables = new ArrayList<>();
+    /**
+     * Calls all the provided requests in parallel, emitting the results in the order of the requests:
+     * a slow request delays the emission, but not the download, of the results behind it.
+     * The requests are sent on subscription.
+     *
+     * @param https a collection of HTTP requests with any combination of methods
+     * @return an {@link io.reactivex.Observable} for subscription
+     */
+    public static Observable<Either<IOException, Response>> allOrdered(Method... https) {
+        return allOrdered(https.length, https);
+    }
 
-        for (Method http : https) {
-            observables.add(Observable.fromFuture(http.executeAsync()));
-        }
+    /**
+     * Calls all the provided requests with at most <code>maxConcurrency</code> of them in flight, emitting
+     * the results in the order of the requests. The requests are sent on subscription.
+     *
+     * @param maxConcurrency the maximum number of requests in flight at any time
+     * @param https          a collection of HTTP requests with any combination of methods
+     * @return an {@link io.reactivex.Observable} for subscription
+     */
+    public static Observable<Either<IOException, Response>> allOrdered(int maxConcurrency, Method... https) {
+        return Observable.fromArray(https)
+                .concatMapEager(Http::deferred, Math.max(1, maxConcurrency), Observable.bufferSize());
+    }
+
+    /**
+     * Calls all the provided requests in parallel, emitting each result as soon as it completes.
+     * The requests are sent on subscription.
+     *
+     * @param https a collection of HTTP requests with any combination of methods
+     * @return an {@link io.reactivex.Observable} for subscription
+     */
+    public static Observable<Either<IOException, Response>> allUnordered(Method... https) {
+        return allUnordered(https.length, https);
+    }
+
+    /**
+     * Calls all the provided requests with at most <code>maxConcurrency</code> of them in flight, emitting
+     * each result as soon as it completes. The requests are sent on subscription.
+     *
+     * @param maxConcurrency the maximum number of requests in flight at any time
+     * @param https          a collection of HTTP requests with any combination of methods
+     * @return an {@link io.reactivex.Observable} for subscription
+     */
+    public static Observable<Either<IOException, Response>> allUnordered(int maxConcurrency, Method... https) {
+        return Observable.fromArray(https)
+                .flatMap(Http::deferred, Math.max(1, maxConcurrency));
+    }
+
+    /* === bridge an async call to an Observable without blocking the subscribing thread === */
+    private static Observable<Either<IOException, Response>> deferred(Method http) {
+        return Observable.create(emitter -> {
+            CompletableFuture<Either<IOException, Response>> future = http.executeAsync();
+            emitter.setCancellable(() -> future.cancel(false));
 
-        /* === concatenate said collection of Observables === */
-        return Observable.concat(observables).subscribeOn(Schedulers.io());
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    emitter.onError(error);
+                } else {
+                    emitter.onNext(result);
+                    emitter.onComplete();
+                }
+            });
+        });
     }
 
     // INJECTION
     public static CloseableHttpClient closableHttpClient() {
-        return HttpClients.createDefault();
+        return config.build();
     }
 
-    public static void setClient(CloseableHttpClient newClient) {
+    /**
+     * Replace the default client. The client it replaces is closed if it was built by this class (from a
+     * {@link HttpClientConfig}); the given one is left for the caller to close.
+     *
+     * @param newClient a pre-configured Apache Http Client
+     */
+    public static synchronized void setClient(CloseableHttpClient newClient) {
+        CloseableHttpClient previous = client;
         client = newClient;
+
+        if (ownsClient) {
+            ownsClient = false;
+            closeQuietly(previous);
+        }
+    }
+
+    /**
+     * Get the non-blocking client used by {@link io.analog.alex.http.methods.Method#executeNonBlocking()}.
+     * It is built and started from the current {@link HttpClientConfig} on first use.
+     *
+     * @return a started {@link org.apache.http.impl.nio.client.CloseableHttpAsyncClient}
+     */
+    public static synchronized CloseableHttpAsyncClient asyncClient() {
+        if (asyncClient == null) {
+            asyncClient = config.buildAsync();
+            ownsAsyncClient = true;
+        }
+        return asyncClient;
+    }
+
+    /**
+     * Replace the default non-blocking client; it must already be started. The client it replaces is closed if
+     * it was built by this class; the given one is left for the caller to close.
+     *
+     * @param newClient a pre-configured and started Apache Http Async Client
+     */
+    public static synchronized void setAsyncClient(CloseableHttpAsyncClient newClient) {
+        CloseableHttpAsyncClient previous = asyncClient;
+        asyncClient = newClient;
+
+        if (ownsAsyncClient) {
+            ownsAsyncClient = false;
+            closeQuietly(previous);
+        }
+    }
+
+    /**
+     * Get the HTTP/2 client every request that does not set its own is sent over
+     *
+     * @return the default HTTP/2 client, or null if requests are sent over HTTP/1.1 (the default)
+     */
+    public static Http2Client http2Client() {
+        return http2Client;
+    }
+
+    /**
+     * Send every request over HTTP/2 with the given client, multiplexing the requests to a host over a single
+     * connection; null goes back to HTTP/1.1
+     *
+     * @param newClient a client e.g. <code>new Http2Config().initialWindowSize(1 &lt;&lt; 20).build()</code>
+     */
+    public static void setHttp2Client(Http2Client newClient) {
+        http2Client = newClient;
+    }
+
+    /**
+     * Get the transport every request that does not set its own is sent with
+     *
+     * @return the default transport, the HTTP/2 client if there is one, or null if requests are sent with
+     * the default Apache clients (the default)
+     */
+    public static Transport transport() {
+        return transport != null ? transport : http2Client;
+    }
+
+    /**
+     * Send every request with the given transport, both blocking and non-blocking calls; null goes back to
+     * the default Apache clients
+     *
+     * @param newTransport a transport e.g. <code>Transports.jdk()</code>
+     */
+    public static void setTransport(Transport newTransport) {
+        transport = newTransport;
+    }
+
+    /**
+     * Get the executor that runs {@link io.analog.alex.http.methods.Method#executeAsync()} calls
+     *
+     * @return the default executor, the common ForkJoinPool unless replaced
+     */
+    public static Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Get the scheduler that runs {@link io.analog.alex.http.methods.Method#executeToObservable()} calls
+     *
+     * @return the default scheduler, {@link io.reactivex.schedulers.Schedulers#io()} unless replaced
+     */
+    public static Scheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Replace the default executor of asynchronous calls, e.g. by a bounded or instrumented pool.
+     * The default scheduler of reactive calls is replaced by one backed by the same executor.
+     *
+     * @param newExecutor the executor that will run blocking HTTP calls
+     */
+    public static void setExecutor(Executor newExecutor) {
+        executor = newExecutor;
+        scheduler = Schedulers.from(newExecutor);
+    }
+
+    /**
+     * Replace the default scheduler of reactive calls only
+     *
+     * @param newScheduler the scheduler that will run blocking HTTP calls
+     */
+    public static void setScheduler(Scheduler newScheduler) {
+        scheduler = newScheduler;
+    }
+
+    /**
+     * Get the client-side cache shared by every GET request
+     *
+     * @return the default response cache, or null if caching is disabled (the default)
+     */
+    public static ResponseCache cache() {
+        return cache;
+    }
+
+    /**
+     * Enable a client-side cache shared by every GET request, e.g. an
+     * {@link io.analog.alex.http.cache.InMemoryResponseCache}; null disables it
+     *
+     * @param newCache the response cache
+     */
+    public static void setCache(ResponseCache newCache) {
+        cache = newCache;
+    }
+
+    /**
+     * Get the single-flight group shared by every idempotent request without a payload
+     *
+     * @return the default single-flight group, or null if coalescing is disabled (the default)
+     */
+    public static SingleFlight singleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Coalesce identical concurrent GET and DELETE requests into a single exchange; null disables it
+     *
+     * @param newSingleFlight the single-flight group e.g. <code>new SingleFlight("Authorization")</code>
+     */
+    public static void setSingleFlight(SingleFlight newSingleFlight) {
+        singleFlight = newSingleFlight;
+    }
+
+    /**
+     * Get the request config (timeouts) applied to every request that does not set its own
+     *
+     * @return the default request config, or null to use the one of the client (the default)
+     */
+    public static RequestConfig requestConfig() {
+        return requestConfig;
+    }
+
+    /**
+     * Set the default socket timeout i.e. the longest period of inactivity between two data packets
+     *
+     * @param timeout the socket timeout; zero means no timeout
+     */
+    public static synchronized void setTimeout(Duration timeout) {
+        requestConfig = defaults().setSocketTimeout((int) Math.min(Integer.MAX_VALUE, timeout.toMillis())).build();
+    }
+
+    /**
+     * Set the default timeout until a connection with the server is established
+     *
+     * @param timeout the connect timeout; zero means no timeout
+     */
+    public static synchronized void setConnectTimeout(Duration timeout) {
+        requestConfig = defaults().setConnectTimeout((int) Math.min(Integer.MAX_VALUE, timeout.toMillis())).build();
+    }
+
+    /**
+     * Set the default timeout to lease a connection from the pool, when every connection to the route is in use
+     *
+     * @param timeout the lease timeout; zero means no timeout
+     */
+    public static synchronized void setLeaseTimeout(Duration timeout) {
+        requestConfig = defaults().setConnectionRequestTimeout((int) Math.min(Integer.MAX_VALUE, timeout.toMillis())).build();
+    }
+
+    private static RequestConfig.Builder defaults() {
+        return requestConfig != null ? RequestConfig.copy(requestConfig) : RequestConfig.custom();
+    }
+
+    /**
+     * Get the overall deadline applied to every request that does not set its own
+     *
+     * @return the default deadline, or null if requests have no deadline (the default)
+     */
+    public static Duration deadline() {
+        return deadline;
+    }
+
+    /**
+     * Set an overall deadline for every request, after which it is aborted; null removes it
+     *
+     * @param newDeadline the deadline
+     */
+    public static void setDeadline(Duration newDeadline) {
+        deadline = newDeadline;
+    }
+
+    /**
+     * Get the retry policy applied to every request that does not set its own
+     *
+     * @return the default retry policy, or null if requests are not retried (the default)
+     */
+    public static RetryPolicy retryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Retry every request according to the given policy; null disables retries
+     *
+     * @param newRetryPolicy the retry policy e.g. <code>new RetryPolicy().maxAttempts(5)</code>
+     */
+    public static void setRetryPolicy(RetryPolicy newRetryPolicy) {
+        retryPolicy = newRetryPolicy;
+    }
+
+    /**
+     * Get the budget every retry policy without one of its own pays its retries from
+     *
+     * @return the default retry budget: a retry for every 10 requests, with bursts of up to 10 retries
+     */
+    public static RetryBudget retryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Replace the budget shared by every retry policy without one of its own
+     *
+     * @param newRetryBudget the retry budget e.g. {@link io.analog.alex.http.resilience.RetryBudget#unlimited()}
+     */
+    public static void setRetryBudget(RetryBudget newRetryBudget) {
+        retryBudget = newRetryBudget;
+    }
+
+    /**
+     * Get the circuit breakers guarding every request that does not set its own
+     *
+     * @return the default circuit breakers, or null if requests are not guarded (the default)
+     */
+    public static CircuitBreakers circuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * Guard every request with a circuit breaker per host (or per circuit key); null disables them
+     *
+     * @param newCircuitBreakers the circuit breakers e.g. <code>new CircuitBreakers().openDuration(Duration.ofSeconds(10))</code>
+     */
+    public static void setCircuitBreakers(CircuitBreakers newCircuitBreakers) {
+        circuitBreakers = newCircuitBreakers;
+    }
+
+    /**
+     * Get the rate and concurrency limits applied to every request that does not set its own
+     *
+     * @return the default limiters, or null if requests are not limited (the default)
+     */
+    public static Limiters limiters() {
+        return limiters;
+    }
+
+    /**
+     * Limit the rate and concurrency of the requests to some hosts; null removes every limit
+     *
+     * @param newLimiters the limiters e.g. <code>new Limiters().rate("api.example.com", 50, 10)</code>
+     */
+    public static void setLimiters(Limiters newLimiters) {
+        limiters = newLimiters;
+    }
+
+    /**
+     * Get the wire logging of every request that does not set its own
+     *
+     * @return the default wire logging, or null if exchanges are not logged (the default)
+     */
+    public static WireLogging wireLogging() {
+        return wireLogging;
+    }
+
+    /**
+     * Log a sample of the exchanges of every request, with truncated bodies and redacted headers; null stops
+     * logging them
+     *
+     * @param newWireLogging the wire logging e.g. <code>new WireLogging().sample(0.01).sample("/person/{id}", 1)</code>
+     */
+    public static void setWireLogging(WireLogging newWireLogging) {
+        wireLogging = newWireLogging;
+    }
+
+    /**
+     * Get the metrics every request is recorded in
+     *
+     * @return the default request metrics, or null if instrumentation is disabled (the default)
+     */
+    public static RequestMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Record the timings, status and byte counts of every request e.g. in an
+     * {@link io.analog.alex.http.metrics.HdrHistogramMetrics}; null disables instrumentation
+     *
+     * @param newMetrics the request metrics
+     */
+    public static void setMetrics(RequestMetrics newMetrics) {
+        metrics = newMetrics;
+    }
+
+    /**
+     * Register the Gson instance shared by every JSON (de)serialization of the library
+     * e.g. one with custom type adapters or naming policies
+     *
+     * @param gson a configured {@link com.google.gson.Gson}
+     */
+    public static void setGson(Gson gson) {
+        GsonUtils.setGson(gson);
+    }
+
+    /**
+     * Replace the default client by a pooled client built from the given configuration; the non-blocking one
+     * is built again from it on first use. The clients this class built before are closed, along with their
+     * pools and threads, so requests created before this call must not be sent after it. Clients set by the
+     * caller are left for the caller to close.
+     *
+     * @param newConfig the connection pool settings
+     */
+    public static synchronized void configure(HttpClientConfig newConfig) {
+        CloseableHttpClient previous = client;
+        CloseableHttpAsyncClient previousAsync = asyncClient;
+
+        config = newConfig;
+        pool = newConfig.connectionManager();
+        client = newConfig.build(pool);
+        asyncClient = null;
+
+        if (ownsClient) {
+            closeQuietly(previous);
+        }
+        if (ownsAsyncClient) {
+            closeQuietly(previousAsync);
+        }
+        ownsClient = true;
+        ownsAsyncClient = false;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // the client is being discarded, nothing else to release
+        }
+    }
+
+    /**
+     * Get the compression of the bodies exchanged by the default clients, along with its byte counters
+     *
+     * @return the compression of the current {@link HttpClientConfig}, or null if it is disabled
+     */
+    public static Compression compression() {
+        return config.getCompression();
+    }
+
+    /**
+     * Get the statistics of the connection pool behind the default client
+     * (not meaningful if the client was replaced via {@link #setClient(CloseableHttpClient)})
+     *
+     * @return the leased, pending and available connections across every route
+     */
+    public static PoolStats poolStats() {
+        return pool.getTotalStats();
+    }
+
+    /**
+     * Get the statistics of the connection pool behind the default client for a single route, known to it or not
+     * (not meaningful if the client was replaced via {@link #setClient(CloseableHttpClient)})
+     *
+     * @param route the route e.g. <code>new HttpRoute(new HttpHost("localhost", 8080))</code>
+     * @return the route's leased, pending and available connections
+     */
+    public static PoolStats poolStats(HttpRoute route) {
+        return pool.getStats(route);
+    }
+
+    /**
+     * Get the statistics of the connection pool behind the default client, per route
+     * (not meaningful if the client was replaced via {@link #setClient(CloseableHttpClient)})
+     *
+     * @return a map of each route to its leased, pending and available connections
+     */
+    public static Map<HttpRoute, PoolStats> routeStats() {
+        PoolingHttpClientConnectionManager manager = pool;
+        Map<HttpRoute, PoolStats> stats = new LinkedHashMap<>();
+
+        for (HttpRoute route : manager.getRoutes()) {
+            stats.put(route, manager.getStats(route));
+        }
+
+        return stats;
     }
 }
@@ -0,0 +1,251 @@
+package io.analog.alex.http;
+
+import io.analog.alex.http.compression.Compression;
+import io.analog.alex.http.metrics.InstrumentedConnectionManager;
+import io.analog.alex.http.metrics.InstrumentedRequestExecutor;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The HttpClientConfig class holds the tunable settings of the pooled Apache Http Client used by {@link Http}.
+ * Every {@link #build()} call creates a new {@link org.apache.http.impl.conn.PoolingHttpClientConnectionManager},
+ * instrumented to time the phases of the requests measured by a {@link io.analog.alex.http.metrics.RequestMetrics};
+ * the statistics of the pool behind the default client are reported by {@link Http#poolStats()}.
+ *
+ * @author Miguel Alexandre
+ */
+public class HttpClientConfig {
+    private int maxTotal = 200;
+    private int maxPerRoute = 20;
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration timeToLive = Duration.ZERO;
+    private boolean evictExpiredConnections = true;
+    private Compression compression = new Compression();
+    private final Map<HttpRoute, Integer> routeLimits = new HashMap<>();
+
+    /**
+     * Begin configuring a client with the default settings: 200 connections in total, 20 per route,
+     * validation after 2 seconds of inactivity, eviction of connections idle for over 30 seconds,
+     * no time-to-live and compressed responses (see {@link io.analog.alex.http.compression.Compression}).
+     */
+    public HttpClientConfig() {
+        // defaults set on the attributes
+    }
+
+    /**
+     * Set the maximum number of connections kept by the pool, across all routes
+     *
+     * @param maxTotal the maximum number of pooled connections
+     * @return the reference to this class instance
+     */
+    public HttpClientConfig maxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+        return this;
+    }
+
+    /**
+     * Set the default maximum number of connections kept by the pool for a single route
+     *
+     * @param maxPerRoute the maximum number of pooled connections per route
+     * @return the reference to this class instance
+     */
+    public HttpClientConfig maxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+        return this;
+    }
+
+    /**
+     * Override the maximum number of connections kept by the pool for a given host
+     *
+     * @param host the target host e.g. <code>new HttpHost("api.example.com", 443, "https")</code>
+     * @param max  the maximum number of pooled connections to that host
+     * @return the reference to this class instance
+     */
+    public HttpClientConfig maxForHost(HttpHost host, int max) {
+        this.routeLimits.put(route(host), max);
+        return this;
+    }
+
+    /* === the direct route the client plans to a host: https routes are secure, and the port is always explicit === */
+    private static HttpRoute route(HttpHost host) {
+        boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+        int port = host.getPort() > 0 ? host.getPort() : secure ? 443 : 80;
+        return new HttpRoute(new HttpHost(host.getHostName(), port, host.getSchemeName()), null, secure);
+    }
+
+    /**
+     * Set the period of inactivity after which a pooled connection is re-validated before being leased
+     *
+     * @param inactivity the inactivity window; zero or negative disables validation
+     * @return the reference to this class instance
+     */
+    public HttpClientConfig validateAfterInactivity(Duration inactivity) {
+        this.validateAfterInactivity = inactivity;
+        return this;
+    }
+
+    /**
+     * Set the idle time after which a background thread evicts a pooled connection
+     *
+     * @param maxIdleTime the maximum idle time; zero disables idle eviction
+     * @return the reference to this class instance
+     */
+    public HttpClientConfig evictIdleConnections(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+        return this;
+    }
+
+    /**
+     * Enable or disable the background eviction of connections whose keep-alive or time-to-live expired
+     *
+     * @param evict whether expired connections should be evicted
+     * @return the reference to this class instance
+     */
+    public HttpClientConfig evictExpiredConnections(boolean evict) {
+        this.evictExpiredConnections = evict;
+        return this;
+    }
+
+    /**
+     * Set the total time-to-live of a pooled connection, regardless of its keep-alive
+     *
+     * @param timeToLive the time-to-live; zero means connections live indefinitely
+     * @return the reference to this class instance
+     */
+    public HttpClientConfig timeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+        return this;
+    }
+
+    /**
+     * Set the compression of the bodies exchanged by the clients built from this configuration
+     *
+     * @param compression the compression settings; null disables compression altogether
+     * @return the reference to this class instance
+     */
+    public HttpClientConfig compression(Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Get the compression of the bodies exchanged by the clients built from this configuration
+     *
+     * @return the compression settings and counters, or null if compression is disabled
+     */
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Build a new Apache Http Client backed by a connection pool with this configuration
+     *
+     * @return a {@link org.apache.http.impl.client.CloseableHttpClient}
+     */
+    public CloseableHttpClient build() {
+        return build(connectionManager());
+    }
+
+    /* === a new pool with the limits of this configuration, kept by Http for the statistics of the default client === */
+    PoolingHttpClientConnectionManager connectionManager() {
+        PoolingHttpClientConnectionManager manager = new InstrumentedConnectionManager(timeToLive.toMillis());
+
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        manager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        routeLimits.forEach(manager::setMaxPerRoute);
+        return manager;
+    }
+
+    CloseableHttpClient build(PoolingHttpClientConnectionManager manager) {
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setRequestExecutor(new InstrumentedRequestExecutor())
+                .disableContentCompression();
+
+        if (compression != null) {
+            builder.addInterceptorLast((HttpRequestInterceptor) compression)
+                    .addInterceptorLast((HttpResponseInterceptor) compression);
+        }
+
+        if (!maxIdleTime.isZero() && !maxIdleTime.isNegative()) {
+            builder.evictIdleConnections(maxIdleTime.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        if (evictExpiredConnections) {
+            builder.evictExpiredConnections();
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Build and start a new non-blocking Apache Http Async Client, whose requests are multiplexed over
+     * a small set of I/O reactor threads instead of holding one thread each. The pool limits of this
+     * configuration apply to it as well; its threads are daemon threads.
+     *
+     * @return a started {@link org.apache.http.impl.nio.client.CloseableHttpAsyncClient}
+     * @throws java.io.UncheckedIOException if the I/O reactor cannot be created
+     */
+    public CloseableHttpAsyncClient buildAsync() {
+        PoolingNHttpClientConnectionManager manager;
+
+        try {
+            manager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT, daemonThreads("http-nio-dispatcher")));
+        } catch (IOReactorException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        routeLimits.forEach(manager::setMaxPerRoute);
+
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .setConnectionManager(manager)
+                .setThreadFactory(daemonThreads("http-nio-reactor"));
+
+        /* === the response interceptors run on the head of the response, before its body is buffered, so the
+         * body is decoded once the response completed (see Method#executeNonBlocking) === */
+        if (compression != null) {
+            builder.addInterceptorLast((HttpRequestInterceptor) compression);
+        }
+
+        CloseableHttpAsyncClient asyncClient = builder.build();
+
+        asyncClient.start();
+        return asyncClient;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package io.analog.alex.http.cache;
+
+/**
+ * An immutable snapshot of the counters of a {@link ResponseCache}
+ *
+ * @author Miguel Alexandre
+ */
+public class CacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long size;
+
+    /**
+     * Create a snapshot of the counters
+     *
+     * @param hits      the number of lookups that found an entry
+     * @param misses    the number of lookups that found no entry
+     * @param evictions the number of entries evicted to bound the cache
+     * @param size      the current number of entries
+     */
+    public CacheStatistics(long hits, long misses, long evictions, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * Get the number of lookups that found an entry
+     *
+     * @return the number of lookups that found an entry
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that found no entry
+     *
+     * @return the number of lookups that found no entry
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of entries evicted to bound the cache
+     *
+     * @return the number of entries evicted to bound the cache
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Get the number of entries at the time of the snapshot
+     *
+     * @return the number of entries at the time of the snapshot
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CacheStatistics [hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", size=" + size + "]";
+    }
+}
@@ -0,0 +1,151 @@
+package io.analog.alex.http.cache;
+
+import io.analog.alex.http.model.Response;
+
+import java.util.Optional;
+
+/**
+ * A cache entry: a {@link io.analog.alex.http.model.Response} together with its freshness lifetime,
+ * as given by its Cache-Control header, and its validators (ETag and Last-Modified).
+ *
+ * @author Miguel Alexandre
+ */
+public class CachedResponse {
+    private final Response response;
+    private final long storedAt;
+    private final long maxAgeMillis;
+    private final String etag;
+    private final String lastModified;
+
+    private CachedResponse(Response response, long storedAt, long maxAgeMillis, String etag, String lastModified) {
+        this.response = response;
+        this.storedAt = storedAt;
+        this.maxAgeMillis = maxAgeMillis;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Create an entry from the response to a request without credentials, if its status and headers allow it
+     * to be cached
+     *
+     * @param response the response to cache
+     * @param now      the current time in milliseconds
+     * @return the entry, or empty if the response cannot be cached
+     * @see #of(Response, boolean, long)
+     */
+    public static Optional<CachedResponse> of(Response response, long now) {
+        return of(response, false, now);
+    }
+
+    /**
+     * Create an entry from a response, if its status and headers allow it to be cached: it must be a
+     * 200 without <code>no-store</code> or <code>private</code>, and either have a <code>max-age</code> or a
+     * validator (a response with <code>no-cache</code> is stored, but always revalidated). The cache is shared
+     * by every caller, so the response to a request with an Authorization header is only stored when it is
+     * explicitly <code>public</code> or has an <code>s-maxage</code>.
+     *
+     * @param response   the response to cache
+     * @param authorized whether the request carried an Authorization header
+     * @param now        the current time in milliseconds
+     * @return the entry, or empty if the response cannot be cached
+     */
+    public static Optional<CachedResponse> of(Response response, boolean authorized, long now) {
+        if (response.getStatusCode() != 200 || response.findHeader("Vary").isPresent()) {
+            return Optional.empty();
+        }
+
+        String cacheControl = response.findHeader("Cache-Control").orElse("").toLowerCase();
+        if (cacheControl.contains("no-store") || cacheControl.contains("private")) {
+            return Optional.empty();
+        }
+
+        if (authorized && !cacheControl.contains("public") && !cacheControl.contains("s-maxage")) {
+            return Optional.empty();
+        }
+
+        long maxAge = cacheControl.contains("no-cache") ? 0 : maxAgeMillis(cacheControl);
+        String etag = response.findHeader("ETag").orElse(null);
+        String lastModified = response.findHeader("Last-Modified").orElse(null);
+
+        if (maxAge <= 0 && etag == null && lastModified == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new CachedResponse(response, now, maxAge, etag, lastModified));
+    }
+
+    /**
+     * Create a copy of this entry, refreshed by a <code>304 Not Modified</code> revalidation
+     *
+     * @param notModified the 304 response
+     * @param now         the current time in milliseconds
+     * @return the refreshed entry
+     */
+    public CachedResponse revalidated(Response notModified, long now) {
+        String cacheControl = notModified.findHeader("Cache-Control").orElse(null);
+        long maxAge = cacheControl == null ? this.maxAgeMillis : maxAgeMillis(cacheControl.toLowerCase());
+
+        return new CachedResponse(response, now, maxAge, notModified.findHeader("ETag").orElse(etag), lastModified);
+    }
+
+    /**
+     * Is the entry still within its freshness lifetime, i.e. can it be served without revalidation?
+     *
+     * @param now the current time in milliseconds
+     * @return a boolean answering the question
+     */
+    public boolean isFresh(long now) {
+        return now - storedAt < maxAgeMillis;
+    }
+
+    /**
+     * Get the cached response
+     *
+     * @return the {@link io.analog.alex.http.model.Response}
+     */
+    public Response getResponse() {
+        return response;
+    }
+
+    /**
+     * Get the entity tag to revalidate the entry with (via If-None-Match)
+     *
+     * @return the ETag, if the response had one
+     */
+    public Optional<String> getEtag() {
+        return Optional.ofNullable(etag);
+    }
+
+    /**
+     * Get the modification date to revalidate the entry with (via If-Modified-Since)
+     *
+     * @return the Last-Modified date, if the response had one
+     */
+    public Optional<String> getLastModified() {
+        return Optional.ofNullable(lastModified);
+    }
+
+    /* === the lifetime for a shared cache: s-maxage when present, max-age otherwise === */
+    private static long maxAgeMillis(String cacheControl) {
+        long maxAge = 0;
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.startsWith("s-maxage=")) {
+                return seconds(trimmed.substring("s-maxage=".length())) * 1000;
+            }
+            if (trimmed.startsWith("max-age=")) {
+                maxAge = seconds(trimmed.substring("max-age=".length())) * 1000;
+            }
+        }
+        return maxAge;
+    }
+
+    private static long seconds(String value) {
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.analog.alex.http.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A {@link ResponseCache} held in memory, bounded by a maximum number of entries and evicting the least
+ * recently used entry when full.
+ *
+ * @author Miguel Alexandre
+ */
+public class InMemoryResponseCache implements ResponseCache {
+    private final Map<String, CachedResponse> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Create a cache holding at most <code>maxEntries</code> responses
+     *
+     * @param maxEntries the maximum number of entries
+     */
+    public InMemoryResponseCache(int maxEntries) {
+        this.entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<CachedResponse> get(String key) {
+        CachedResponse entry = entries.get(key);
+
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+
+        return Optional.ofNullable(entry);
+    }
+
+    @Override
+    public synchronized void put(String key, CachedResponse entry) {
+        entries.put(key, entry);
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(hits, misses, evictions, entries.size());
+    }
+}
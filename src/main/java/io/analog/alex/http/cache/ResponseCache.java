@@ -0,0 +1,43 @@
+package io.analog.alex.http.cache;
+
+import java.util.Optional;
+
+/**
+ * A store of cached GET responses, keyed by request URI. The HTTP semantics (freshness, revalidation,
+ * no-store) are applied by {@link io.analog.alex.http.methods.Method}; implementations only need to store
+ * and bound the entries e.g. in memory ({@link InMemoryResponseCache}) or on disk.
+ *
+ * @author Miguel Alexandre
+ */
+public interface ResponseCache {
+
+    /**
+     * Look up a cached entry
+     *
+     * @param key the cache key
+     * @return the entry, if present
+     */
+    Optional<CachedResponse> get(String key);
+
+    /**
+     * Store or replace an entry
+     *
+     * @param key   the cache key
+     * @param entry the entry to store
+     */
+    void put(String key, CachedResponse entry);
+
+    /**
+     * Remove an entry, if present
+     *
+     * @param key the cache key
+     */
+    void remove(String key);
+
+    /**
+     * Get the hit, miss and eviction counters of this cache
+     *
+     * @return a snapshot of the counters
+     */
+    CacheStatistics getStatistics();
+}
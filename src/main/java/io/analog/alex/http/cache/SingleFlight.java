@@ -0,0 +1,182 @@
+package io.analog.alex.http.cache;
+
+import io.analog.alex.http.model.Response;
+import io.analog.alex.http.resilience.Deadline;
+import io.analog.alex.http.resilience.DeadlineExceededException;
+import org.apache.http.impl.execchain.RequestAbortedException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces identical concurrent requests: the first caller for a key (the leader) performs the exchange
+ * while every caller arriving before it completes waits for, and receives, the same
+ * {@link io.analog.alex.http.model.Response} or IOException. Nothing is kept once the exchange completes;
+ * combine it with a {@link ResponseCache} to also reuse responses over time.
+ *
+ * @author Miguel Alexandre
+ */
+public class SingleFlight {
+    private final ConcurrentMap<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+    private final List<String> keyHeaders;
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+
+    /**
+     * An exchange that may be shared between callers
+     */
+    @FunctionalInterface
+    public interface Exchange {
+        Response call() throws IOException;
+    }
+
+    /**
+     * Create a single-flight group where requests are identical when they share a method and a URI, plus
+     * the values of the given headers (e.g. Authorization or Accept, when they change the response)
+     *
+     * @param keyHeaders the names of the headers that are part of the identity of a request
+     */
+    public SingleFlight(String... keyHeaders) {
+        this.keyHeaders = Arrays.asList(keyHeaders);
+    }
+
+    /**
+     * Get the names of the headers that are part of the identity of a request
+     *
+     * @return the header names given on creation
+     */
+    public List<String> getKeyHeaders() {
+        return keyHeaders;
+    }
+
+    /**
+     * Run the exchange, unless an identical one is already in flight, in which case wait for its outcome
+     *
+     * @param key      the identity of the request
+     * @param exchange the exchange to run if this caller is the leader
+     * @return the response of the shared exchange
+     * @throws IOException the failure of the shared exchange, or an InterruptedIOException if interrupted while waiting
+     */
+    public Response execute(String key, Exchange exchange) throws IOException {
+        return execute(key, null, exchange);
+    }
+
+    /**
+     * Run the exchange, unless an identical one is already in flight, in which case wait for its outcome for no
+     * longer than the caller's own deadline. A leader that was aborted (by its deadline or by a winning hedge)
+     * hands nothing to the callers waiting on it: they run the exchange again, one of them leading.
+     *
+     * @param key      the identity of the request
+     * @param deadline the deadline of the caller, if any
+     * @param exchange the exchange to run if this caller is the leader
+     * @return the response of the shared exchange
+     * @throws IOException the failure of the shared exchange, a {@link DeadlineExceededException} if the deadline
+     *                     passed while waiting, or an InterruptedIOException if interrupted while waiting
+     */
+    public Response execute(String key, Deadline deadline, Exchange exchange) throws IOException {
+        while (true) {
+            CompletableFuture<Response> mine = new CompletableFuture<>();
+            CompletableFuture<Response> leader = inFlight.putIfAbsent(key, mine);
+
+            if (leader == null) {
+                return lead(key, mine, exchange);
+            }
+
+            Response response = await(leader, deadline);
+            if (response != null) {
+                return response;
+            }
+        }
+    }
+
+    private Response lead(String key, CompletableFuture<Response> mine, Exchange exchange) throws IOException {
+        executed.incrementAndGet();
+        try {
+            Response response = exchange.call();
+            mine.complete(response);
+            return response;
+
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /* === null when the leader was aborted, so that the caller tries again === */
+    private Response await(CompletableFuture<Response> leader, Deadline deadline) throws IOException {
+        try {
+            Response response = deadline == null
+                    ? leader.get()
+                    : leader.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+            collapsed.incrementAndGet();
+            return response;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an identical request");
+
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(deadline.getTimeout(), e);
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RequestAbortedException || cause instanceof DeadlineExceededException) {
+                return null;
+            }
+            collapsed.incrementAndGet();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    /**
+     * Get the number of exchanges actually performed
+     *
+     * @return the number of calls that led an exchange
+     */
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    /**
+     * Get the number of calls collapsed into an identical exchange already in flight
+     *
+     * @return the number of calls that did not reach the server
+     */
+    public long getCollapsed() {
+        return collapsed.get();
+    }
+
+    /**
+     * Get the number of exchanges currently in flight
+     *
+     * @return the number of distinct requests being performed
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "SingleFlight [executed=" + executed + ", collapsed=" + collapsed + ", inFlight=" + inFlight.size() + "]";
+    }
+}
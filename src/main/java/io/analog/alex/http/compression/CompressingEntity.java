@@ -0,0 +1,107 @@
+package io.analog.alex.http.compression;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.message.BasicHeader;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A request entity compressed on the fly as it is written to the connection, sent chunked as its compressed
+ * length is not known beforehand. The bytes written on both ends of the encoder are added to the counters
+ * of a {@link Compression}.
+ *
+ * @author Miguel Alexandre
+ */
+public class CompressingEntity extends HttpEntityWrapper {
+    private final ContentCoding coding;
+    private final LongAdder compressed;
+    private final LongAdder uncompressed;
+
+    CompressingEntity(HttpEntity entity, ContentCoding coding, LongAdder compressed, LongAdder uncompressed) {
+        super(entity);
+        this.coding = coding;
+        this.compressed = compressed;
+        this.uncompressed = uncompressed;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        /* === closing the encoder finishes the compressed stream; the chunked stream below is not closed by it === */
+        try (OutputStream encoder = coding.encoder(new Counting(out, compressed))) {
+            wrappedEntity.writeTo(new Counting(encoder, uncompressed));
+        }
+    }
+
+    /**
+     * The compressed content can only be written, not read
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public InputStream getContent() {
+        throw new UnsupportedOperationException("A compressed body can only be written");
+    }
+
+    /**
+     * The compressed length is not known until the body is written
+     *
+     * @return -1
+     */
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return true;
+    }
+
+    @Override
+    public Header getContentEncoding() {
+        return new BasicHeader(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+    }
+
+    /**
+     * Get the coding the content is compressed with
+     *
+     * @return the content coding
+     */
+    public ContentCoding getCoding() {
+        return coding;
+    }
+
+    /* === a stream adding the bytes written through it to a counter, without closing the one below === */
+    private static final class Counting extends FilterOutputStream {
+        private final LongAdder counter;
+
+        Counting(OutputStream out, LongAdder counter) {
+            super(out);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            counter.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            counter.add(len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
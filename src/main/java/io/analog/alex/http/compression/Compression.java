@@ -0,0 +1,232 @@
+package io.analog.alex.http.compression;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * The compression of the bodies exchanged by a client. Responses are negotiated with an Accept-Encoding header
+ * listing the accepted codings, and decoded on the fly as they are read; request bodies are only compressed
+ * when a request coding is set, and then only from a size threshold up. As an interceptor of the client it
+ * adds the Accept-Encoding header to the requests and decodes the responses.
+ *
+ * @author Miguel Alexandre
+ */
+public class Compression implements HttpRequestInterceptor, HttpResponseInterceptor {
+    private Set<ContentCoding> accepted = EnumSet.of(ContentCoding.GZIP, ContentCoding.DEFLATE, ContentCoding.ZSTD);
+    private ContentCoding requestCoding;
+    private long requestThreshold = 1024;
+    private String acceptEncoding;
+
+    private final LongAdder requestCompressed = new LongAdder();
+    private final LongAdder requestUncompressed = new LongAdder();
+    private final LongAdder responseCompressed = new LongAdder();
+    private final LongAdder responseUncompressed = new LongAdder();
+
+    /**
+     * Begin configuring compression with the default settings: gzip, deflate and (if available) zstd responses
+     * are accepted, and request bodies are not compressed.
+     */
+    public Compression() {
+        // defaults set on the attributes
+    }
+
+    /**
+     * Set the codings the responses may be compressed with; none disables the negotiation, though a response
+     * compressed with a known coding regardless is still decoded
+     *
+     * @param codings the accepted codings, unavailable ones being left out
+     * @return the reference to this class instance
+     */
+    public Compression accept(ContentCoding... codings) {
+        this.accepted = codings.length == 0 ? EnumSet.noneOf(ContentCoding.class) : EnumSet.copyOf(Arrays.asList(codings));
+        this.acceptEncoding = null;
+        return this;
+    }
+
+    /**
+     * Compress the request bodies with the given coding, from the given size up. A body of unknown length
+     * (e.g. a stream) is always compressed.
+     *
+     * @param coding    the coding e.g. {@link ContentCoding#GZIP}; null to stop compressing request bodies
+     * @param threshold the size in bytes from which a body is compressed
+     * @return the reference to this class instance
+     */
+    public Compression compressRequests(ContentCoding coding, long threshold) {
+        if (coding != null && !coding.isAvailable()) {
+            throw new IllegalArgumentException("The " + coding.getToken() + " coding is not on the classpath");
+        }
+
+        this.requestCoding = coding;
+        this.requestThreshold = threshold;
+        return this;
+    }
+
+    /* *
+     * Requests
+     */
+
+    /**
+     * Add the Accept-Encoding header to a request that has none
+     *
+     * @param request the request
+     * @param context the context of the execution
+     */
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        String value = acceptEncoding();
+        if (!value.isEmpty() && !request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, value);
+        }
+    }
+
+    private String acceptEncoding() {
+        String value = this.acceptEncoding;
+        if (value == null) {
+            value = accepted.stream()
+                    .filter(ContentCoding::isAvailable)
+                    .map(ContentCoding::getToken)
+                    .collect(Collectors.joining(", "));
+            this.acceptEncoding = value;
+        }
+        return value;
+    }
+
+    /**
+     * Compress the body of a request, if there is a request coding and the body is large enough; a body already
+     * encoded is left as it is, so this can be applied again to a request being retried
+     *
+     * @param request the request
+     */
+    public void compress(HttpEntityEnclosingRequest request) {
+        HttpEntity entity = request.getEntity();
+        ContentCoding coding = this.requestCoding;
+
+        if (coding == null || entity == null || entity.getContentEncoding() != null) {
+            return;
+        }
+
+        long length = entity.getContentLength();
+        if (length < 0 || length >= requestThreshold) {
+            request.setEntity(new CompressingEntity(entity, coding, requestCompressed, requestUncompressed));
+        }
+    }
+
+    /* *
+     * Responses
+     */
+
+    /**
+     * Decode the body of a response compressed with known codings, removing the headers describing the
+     * encoded body; a response with an unknown coding is left as it is
+     *
+     * @param response the response
+     * @param context  the context of the execution
+     */
+    @Override
+    public void process(HttpResponse response, HttpContext context) {
+        decode(response);
+    }
+
+    /**
+     * Decode the body of a response compressed with known codings e.g. one received by a client without
+     * this interceptor
+     *
+     * @param response the response
+     */
+    public void decode(HttpResponse response) {
+        HttpEntity entity = response.getEntity();
+        Header encoding = entity == null ? null : entity.getContentEncoding();
+
+        if (encoding == null || entity.getContentLength() == 0) {
+            return;
+        }
+
+        List<ContentCoding> codings = new ArrayList<>();
+        for (HeaderElement element : encoding.getElements()) {
+            if ("identity".equalsIgnoreCase(element.getName())) {
+                continue;
+            }
+
+            Optional<ContentCoding> coding = ContentCoding.of(element.getName());
+            if (!coding.isPresent() || !coding.get().isAvailable()) {
+                return;
+            }
+            codings.add(coding.get());
+        }
+
+        if (codings.isEmpty()) {
+            return;
+        }
+
+        response.setEntity(new DecompressingEntity(entity, codings, responseCompressed, responseUncompressed));
+        response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+        response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+        response.removeHeaders(HttpHeaders.CONTENT_MD5);
+    }
+
+    /* *
+     * Getters and statistics
+     */
+
+    /**
+     * Get the codings the responses may be compressed with
+     *
+     * @return the accepted codings
+     */
+    public Set<ContentCoding> getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Get the coding the request bodies are compressed with
+     *
+     * @return the request coding, or null if request bodies are not compressed
+     */
+    public ContentCoding getRequestCoding() {
+        return requestCoding;
+    }
+
+    /**
+     * Get the size from which a request body is compressed
+     *
+     * @return the threshold in bytes
+     */
+    public long getRequestThreshold() {
+        return requestThreshold;
+    }
+
+    /**
+     * Get the byte counters of the request bodies compressed so far
+     *
+     * @return a snapshot of the counters
+     */
+    public CompressionStatistics getRequestStatistics() {
+        return new CompressionStatistics(requestCompressed.sum(), requestUncompressed.sum());
+    }
+
+    /**
+     * Get the byte counters of the response bodies decompressed so far
+     *
+     * @return a snapshot of the counters
+     */
+    public CompressionStatistics getResponseStatistics() {
+        return new CompressionStatistics(responseCompressed.sum(), responseUncompressed.sum());
+    }
+}
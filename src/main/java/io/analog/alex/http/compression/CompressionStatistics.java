@@ -0,0 +1,68 @@
+package io.analog.alex.http.compression;
+
+/**
+ * An immutable snapshot of the byte counters of the bodies compressed (or decompressed) under a {@link Compression}
+ *
+ * @author Miguel Alexandre
+ */
+public class CompressionStatistics {
+    private final long compressedBytes;
+    private final long uncompressedBytes;
+
+    /**
+     * Create a snapshot of the counters
+     *
+     * @param compressedBytes   the number of bytes of the bodies as sent over the wire
+     * @param uncompressedBytes the number of bytes of the same bodies once decompressed
+     */
+    public CompressionStatistics(long compressedBytes, long uncompressedBytes) {
+        this.compressedBytes = compressedBytes;
+        this.uncompressedBytes = uncompressedBytes;
+    }
+
+    /**
+     * Get the number of bytes of the bodies as sent over the wire
+     *
+     * @return the number of compressed bytes
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * Get the number of bytes of the same bodies once decompressed
+     *
+     * @return the number of uncompressed bytes
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+
+    /**
+     * Get the bytes saved on the wire by compression
+     *
+     * @return the difference between the uncompressed and the compressed bytes
+     */
+    public long getSavedBytes() {
+        return uncompressedBytes - compressedBytes;
+    }
+
+    /**
+     * Get the compression ratio
+     *
+     * @return the uncompressed bytes per compressed byte, or 1 if nothing was compressed yet
+     */
+    public double getRatio() {
+        return compressedBytes == 0 ? 1.0 : (double) uncompressedBytes / compressedBytes;
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CompressionStatistics [compressed=" + compressedBytes + ", uncompressed=" + uncompressedBytes + "]";
+    }
+}
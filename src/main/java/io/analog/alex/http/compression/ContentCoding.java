@@ -0,0 +1,124 @@
+package io.analog.alex.http.compression;
+
+import org.apache.http.client.entity.DeflateInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The content codings (RFC 9110, section 8.4.1) bodies can be compressed with. Zstandard needs the optional
+ * <code>com.github.luben:zstd-jni</code> dependency; without it, it is neither advertised nor used.
+ *
+ * @author Miguel Alexandre
+ */
+public enum ContentCoding {
+    GZIP("gzip") {
+        @Override
+        public InputStream decoder(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+
+        @Override
+        public OutputStream encoder(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+    },
+    DEFLATE("deflate") {
+        /* === servers send both zlib-wrapped and raw deflate streams under this name === */
+        @Override
+        public InputStream decoder(InputStream in) throws IOException {
+            return new DeflateInputStream(in);
+        }
+
+        @Override
+        public OutputStream encoder(OutputStream out) {
+            return new DeflaterOutputStream(out);
+        }
+    },
+    ZSTD("zstd") {
+        @Override
+        public InputStream decoder(InputStream in) throws IOException {
+            return Zstd.decoder(in);
+        }
+
+        @Override
+        public OutputStream encoder(OutputStream out) throws IOException {
+            return Zstd.encoder(out);
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return Zstd.isAvailable();
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Wrap a compressed stream into one reading it decompressed
+     *
+     * @param in the compressed stream
+     * @return the decompressed stream
+     * @throws IOException if the stream does not start with a valid header
+     */
+    public abstract InputStream decoder(InputStream in) throws IOException;
+
+    /**
+     * Wrap a stream into one compressing what is written to it; closing it finishes the compressed stream
+     *
+     * @param out the stream the compressed bytes are written to
+     * @return the compressing stream
+     * @throws IOException if the header cannot be written
+     */
+    public abstract OutputStream encoder(OutputStream out) throws IOException;
+
+    /**
+     * Can this coding be used i.e. is its implementation on the classpath?
+     *
+     * @return a boolean answering the question
+     */
+    public boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Get the name of the coding in the Content-Encoding and Accept-Encoding headers
+     *
+     * @return the token e.g. gzip
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Find the coding named by a Content-Encoding token, ignoring case
+     *
+     * @param token the token e.g. gzip or x-gzip
+     * @return the coding, if it is known
+     */
+    public static Optional<ContentCoding> of(String token) {
+        String name = token.trim();
+
+        if ("x-gzip".equalsIgnoreCase(name)) {
+            return Optional.of(GZIP);
+        }
+        for (ContentCoding coding : values()) {
+            if (coding.token.equalsIgnoreCase(name)) {
+                return Optional.of(coding);
+            }
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,131 @@
+package io.analog.alex.http.compression;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A response entity decoded on the fly as it is read: its content is a stream of decoders stacked over the
+ * stream of the wrapped entity, so the body is never buffered compressed. The bytes read on both ends of
+ * the decoders are added to the counters of a {@link Compression}.
+ *
+ * @author Miguel Alexandre
+ */
+public class DecompressingEntity extends HttpEntityWrapper {
+    private final List<ContentCoding> codings;
+    private final LongAdder compressed;
+    private final LongAdder uncompressed;
+    private InputStream content;
+
+    DecompressingEntity(HttpEntity entity, List<ContentCoding> codings, LongAdder compressed, LongAdder uncompressed) {
+        super(entity);
+        this.codings = codings;
+        this.compressed = compressed;
+        this.uncompressed = uncompressed;
+    }
+
+    /**
+     * Get the decoded content; a streaming entity returns the same stream on every call
+     *
+     * @return the decoded stream
+     * @throws IOException if the stream does not start with a valid header
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        if (!wrappedEntity.isStreaming()) {
+            return decode();
+        }
+        if (content == null) {
+            content = decode();
+        }
+        return content;
+    }
+
+    /* === the codings are listed in the order they were applied, so they are undone from the last one === */
+    private InputStream decode() throws IOException {
+        InputStream in = new Counting(wrappedEntity.getContent(), compressed);
+        for (int i = codings.size() - 1; i >= 0; i--) {
+            in = codings.get(i).decoder(in);
+        }
+        return new Counting(in, uncompressed);
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+
+        try (InputStream in = getContent()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * The decoded length is not known until the body is read
+     *
+     * @return -1
+     */
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * The content is no longer encoded
+     *
+     * @return null
+     */
+    @Override
+    public Header getContentEncoding() {
+        return null;
+    }
+
+    /* === a stream adding the bytes read through it to a counter === */
+    private static final class Counting extends FilterInputStream {
+        private final LongAdder counter;
+
+        Counting(InputStream in, LongAdder counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                counter.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                counter.add(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            counter.add(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.analog.alex.http.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/* === the zstd-jni classes are only resolved through here, once the library is known to be on the classpath === */
+final class Zstd {
+    private static final boolean AVAILABLE = load();
+
+    private Zstd() {
+    }
+
+    private static boolean load() {
+        try {
+            Class.forName("com.github.luben.zstd.ZstdInputStream");
+            com.github.luben.zstd.util.Native.load();
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    static InputStream decoder(InputStream in) throws IOException {
+        return Streams.decoder(in);
+    }
+
+    static OutputStream encoder(OutputStream out) throws IOException {
+        return Streams.encoder(out);
+    }
+
+    /* === verifying these methods loads the zstd-jni stream classes, so they live apart from the availability check === */
+    private static final class Streams {
+
+        static InputStream decoder(InputStream in) throws IOException {
+            /* === the native decoder reads in large chunks of its own, small reads of it are buffered === */
+            return new BufferedInputStream(new ZstdInputStream(in));
+        }
+
+        static OutputStream encoder(OutputStream out) throws IOException {
+            return new ZstdOutputStream(out);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.analog.alex.http.http2;
+
+import io.analog.alex.http.compression.Compression;
+import io.analog.alex.http.transport.Transport;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A client sending the requests of the fluent API as streams multiplexed over one HTTP/2 connection per host,
+ * built from an {@link Http2Config}; it is the HTTP/2 {@link Transport} of the library. Requests and responses
+ * are translated to and from the Apache Http Client 4 model, so everything built on it (retries, deadlines,
+ * hedging, circuit breakers, limits) works unchanged; aborting a request resets its stream. Bodies are buffered
+ * in memory in both directions.
+ *
+ * @author Miguel Alexandre
+ */
+public class Http2Client implements Transport {
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+
+    /* === connection-specific headers are forbidden in HTTP/2 (RFC 9113, section 8.2.2) === */
+    private static final Set<String> CONNECTION_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade", "host", "content-length"));
+
+    private final CloseableHttpAsyncClient client;
+    private final Compression compression;
+
+    Http2Client(CloseableHttpAsyncClient client, Compression compression) {
+        this.client = client;
+        this.compression = compression;
+    }
+
+    /**
+     * Send a request and wait for its response
+     *
+     * @param request the request
+     * @return the response, with its body already in memory
+     * @throws IOException if the exchange failed, or a {@link RequestAbortedException} if it was aborted
+     */
+    @Override
+    public CloseableHttpResponse execute(HttpRequestBase request) throws IOException {
+        Future<SimpleHttpResponse> future = send(request, null);
+
+        try {
+            return adapt(future.get());
+
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (CancellationException e) {
+            throw new RequestAbortedException("Request aborted");
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    /**
+     * Send a request without blocking; the callback runs on an I/O reactor thread
+     *
+     * @param request  the request
+     * @param callback the callback completed with the response, with its body already in memory
+     */
+    @Override
+    public void execute(HttpRequestBase request, FutureCallback<HttpResponse> callback) {
+        org.apache.hc.core5.concurrent.FutureCallback<SimpleHttpResponse> adapter =
+                new org.apache.hc.core5.concurrent.FutureCallback<SimpleHttpResponse>() {
+                    @Override
+                    public void completed(SimpleHttpResponse response) {
+                        callback.completed(adapt(response));
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        callback.failed(failure(e));
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        callback.cancelled();
+                    }
+                };
+
+        try {
+            send(request, adapter);
+        } catch (IOException e) {
+            callback.failed(e);
+        }
+    }
+
+    private Future<SimpleHttpResponse> send(HttpRequestBase request,
+                                            org.apache.hc.core5.concurrent.FutureCallback<SimpleHttpResponse> callback) throws IOException {
+        if (compression != null) {
+            compression.process(request, null);
+        }
+
+        SimpleHttpRequest stream = SimpleHttpRequest.create(request.getMethod(), request.getURI());
+        HttpEntity entity = request instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+
+        for (Header header : request.getAllHeaders()) {
+            String name = header.getName().toLowerCase(Locale.ROOT);
+            if (!CONNECTION_HEADERS.contains(name) && !(entity != null && HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name))) {
+                stream.addHeader(header.getName(), header.getValue());
+            }
+        }
+
+        if (entity != null) {
+            body(request, entity, stream);
+        }
+        if (request.getConfig() != null) {
+            stream.setConfig(config(request.getConfig()));
+        }
+
+        /* === aborting the request (on a deadline, a winning hedge...) resets its stream === */
+        Future<SimpleHttpResponse> future = client.execute(stream, callback);
+        request.setCancellable(() -> future.cancel(true));
+        return future;
+    }
+
+    private static void body(HttpRequestBase request, HttpEntity entity, SimpleHttpRequest stream) throws IOException {
+        long length = entity.getContentLength();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(length > 0 && length < Integer.MAX_VALUE ? (int) length : 4096);
+        entity.writeTo(bytes);
+
+        Header type = entity.getContentType() != null ? entity.getContentType() : request.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        stream.setBody(bytes.toByteArray(), type != null ? ContentType.parse(type.getValue()) : ContentType.DEFAULT_BINARY);
+
+        if (entity.getContentEncoding() != null && !stream.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            stream.addHeader(HttpHeaders.CONTENT_ENCODING, entity.getContentEncoding().getValue());
+        }
+    }
+
+    private static org.apache.hc.client5.http.config.RequestConfig config(RequestConfig config) {
+        org.apache.hc.client5.http.config.RequestConfig.Builder builder = org.apache.hc.client5.http.config.RequestConfig.custom();
+
+        if (config.getConnectTimeout() > 0) {
+            builder.setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeout()));
+        }
+        if (config.getSocketTimeout() > 0) {
+            builder.setResponseTimeout(Timeout.ofMilliseconds(config.getSocketTimeout()));
+        }
+        if (config.getConnectionRequestTimeout() > 0) {
+            builder.setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectionRequestTimeout()));
+        }
+
+        return builder.build();
+    }
+
+    private CloseableHttpResponse adapt(SimpleHttpResponse response) {
+        int code = response.getCode();
+        String reason = response.getReasonPhrase() != null
+                ? response.getReasonPhrase()
+                : EnglishReasonPhraseCatalog.INSTANCE.getReason(code, Locale.ENGLISH);
+
+        Http2Response adapted = new Http2Response(code, reason);
+        for (org.apache.hc.core5.http.Header header : response.getHeaders()) {
+            adapted.addHeader(header.getName(), header.getValue());
+        }
+
+        byte[] body = response.getBodyBytes();
+        if (body != null) {
+            ByteArrayEntity entity = new ByteArrayEntity(body);
+            entity.setContentType(adapted.getFirstHeader(HttpHeaders.CONTENT_TYPE));
+            entity.setContentEncoding(adapted.getFirstHeader(HttpHeaders.CONTENT_ENCODING));
+            adapted.setEntity(entity);
+        }
+
+        if (compression != null) {
+            compression.decode(adapted);
+        }
+        return adapted;
+    }
+
+    private static IOException failure(Throwable cause) {
+        return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+
+    /**
+     * Get the compression of the response bodies received by this client
+     *
+     * @return the compression settings and counters, or null if compression is disabled
+     */
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Close the connections and stop the I/O reactor, letting the streams in flight complete
+     */
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+
+    /* === a response already read in full, so closing it releases nothing === */
+    private static final class Http2Response extends BasicHttpResponse implements CloseableHttpResponse {
+
+        Http2Response(int code, String reason) {
+            super(new BasicStatusLine(HTTP_2, code, reason));
+        }
+
+        @Override
+        public void close() {
+            // the stream is over and its body is in memory
+        }
+    }
+}
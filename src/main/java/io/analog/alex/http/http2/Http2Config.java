@@ -0,0 +1,145 @@
+package io.analog.alex.http.http2;
+
+import io.analog.alex.http.compression.Compression;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.concurrent.DefaultThreadFactory;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+
+import javax.net.ssl.SSLContext;
+
+/**
+ * The Http2Config class holds the tunable settings of an {@link Http2Client}, a client multiplexing every request
+ * to a host as concurrent streams over a single HTTP/2 connection. Requests to <code>https</code> URLs negotiate
+ * h2 with ALPN; requests to <code>http</code> URLs are sent over h2c with prior knowledge, which is meant for local
+ * testing against servers known to speak HTTP/2 in clear text. It needs the optional
+ * <code>org.apache.httpcomponents.client5:httpclient5</code> dependency.
+ *
+ * @author Miguel Alexandre
+ */
+public class Http2Config {
+    private int maxConcurrentStreams = 100;
+    private int initialWindowSize = 65_535;
+    private int maxFrameSize = 16_384;
+    private int ioThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private SSLContext sslContext;
+    private Compression compression = new Compression();
+
+    /**
+     * Begin configuring a client with the default settings: 100 concurrent streams, the initial flow-control
+     * window (64 KiB) and maximum frame size (16 KiB) of the specification, one I/O thread per two cores,
+     * the default TLS context and compressed responses.
+     */
+    public Http2Config() {
+        // defaults set on the attributes
+    }
+
+    /**
+     * Set the maximum number of concurrent streams the server may open towards the client on a connection
+     * (SETTINGS_MAX_CONCURRENT_STREAMS); the streams opened by the client are bounded by the server's own setting
+     *
+     * @param maxConcurrentStreams the maximum number of concurrent streams
+     * @return the reference to this class instance
+     */
+    public Http2Config maxConcurrentStreams(int maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        return this;
+    }
+
+    /**
+     * Set the initial flow-control window of each stream (SETTINGS_INITIAL_WINDOW_SIZE), i.e. how many bytes of
+     * a response the server may send before the client acknowledges them. A larger window keeps large downloads
+     * over long round trips from stalling, at the cost of more memory buffered per stream.
+     *
+     * @param initialWindowSize the window in bytes, up to 2^31 - 1
+     * @return the reference to this class instance
+     */
+    public Http2Config initialWindowSize(int initialWindowSize) {
+        this.initialWindowSize = initialWindowSize;
+        return this;
+    }
+
+    /**
+     * Set the largest frame the client accepts (SETTINGS_MAX_FRAME_SIZE)
+     *
+     * @param maxFrameSize the frame size in bytes, from 16 KiB up to 16 MiB - 1
+     * @return the reference to this class instance
+     */
+    public Http2Config maxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+        return this;
+    }
+
+    /**
+     * Set the number of I/O reactor threads the connections are spread over
+     *
+     * @param ioThreads the number of threads
+     * @return the reference to this class instance
+     */
+    public Http2Config ioThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+        return this;
+    }
+
+    /**
+     * Set the TLS context of the <code>https</code> connections
+     *
+     * @param sslContext the TLS context; null for the default one of the JVM
+     * @return the reference to this class instance
+     */
+    public Http2Config sslContext(SSLContext sslContext) {
+        this.sslContext = sslContext;
+        return this;
+    }
+
+    /**
+     * Set the compression of the response bodies received by the client
+     *
+     * @param compression the compression settings; null disables response compression
+     * @return the reference to this class instance
+     */
+    public Http2Config compression(Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Build and start a new HTTP/2 client with this configuration; its threads are daemon threads
+     *
+     * @return a started {@link Http2Client}
+     */
+    public Http2Client build() {
+        H2Config h2Config = H2Config.custom()
+                .setMaxConcurrentStreams(maxConcurrentStreams)
+                .setInitialWindowSize(initialWindowSize)
+                .setMaxFrameSize(maxFrameSize)
+                .setPushEnabled(false)
+                .build();
+
+        /* === retries belong to the RetryPolicy of the requests === */
+        H2AsyncClientBuilder builder = H2AsyncClientBuilder.create()
+                .setH2Config(h2Config)
+                .setIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(ioThreads).build())
+                .setThreadFactory(new DefaultThreadFactory("http2-reactor", true))
+                .disableAutomaticRetries();
+
+        if (sslContext != null) {
+            builder.setTlsStrategy(ClientTlsStrategyBuilder.create().setSslContext(sslContext).build());
+        }
+
+        CloseableHttpAsyncClient client = builder.build();
+        client.start();
+        return new Http2Client(client, compression);
+    }
+
+    /**
+     * Get the compression of the response bodies received by the clients built from this configuration
+     *
+     * @return the compression settings and counters, or null if compression is disabled
+     */
+    public Compression getCompression() {
+        return compression;
+    }
+}
@@ -0,0 +1,336 @@
+package io.analog.alex.http.logging;
+
+import io.analog.alex.http.model.Response;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The logging of the requests and responses exchanged on the wire, at INFO level on the
+ * <code>io.analog.alex.http.wire</code> logger. Only a sample of the exchanges is logged, at a rate that can be
+ * set per route; bodies are truncated and sensitive headers redacted. The request thread only takes a snapshot
+ * of the exchange: the formatting and the logging itself run on a background thread, and exchanges are dropped
+ * rather than queued without bound when it falls behind. While the logger is disabled, or an exchange is not
+ * sampled, nothing is captured at all.
+ *
+ * @author Miguel Alexandre
+ */
+public class WireLogging {
+    private static final Logger LOGGER = LogManager.getLogger("io.analog.alex.http.wire");
+    private static final String REDACTED = "[REDACTED]";
+
+    private double rate = 1.0;
+    private final Map<String, Double> routeRates = new ConcurrentHashMap<>();
+    private int maxBodyBytes = 1024;
+    private Set<String> redacted = redactions(Arrays.asList("Authorization", "Proxy-Authorization", "Cookie", "Set-Cookie"));
+    private Executor executor;
+    private Consumer<String> sink;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Begin configuring wire logging with the default settings: every exchange is logged, bodies are truncated to
+     * 1 KiB, and the Authorization, Proxy-Authorization, Cookie and Set-Cookie headers are redacted.
+     */
+    public WireLogging() {
+        // defaults set on the attributes
+    }
+
+    /**
+     * Set the share of the exchanges logged, for the routes without a rate of their own
+     *
+     * @param rate the sampling rate, from 0 (none) to 1 (every exchange)
+     * @return the reference to this class instance
+     */
+    public WireLogging sample(double rate) {
+        this.rate = rate;
+        return this;
+    }
+
+    /**
+     * Set the share of the exchanges logged for a route, as tagged with
+     * {@link io.analog.alex.http.methods.Method#route(String)}
+     *
+     * @param route the route template e.g. <code>/person/{id}</code>
+     * @param rate  the sampling rate, from 0 (none) to 1 (every exchange)
+     * @return the reference to this class instance
+     */
+    public WireLogging sample(String route, double rate) {
+        this.routeRates.put(route, rate);
+        return this;
+    }
+
+    /**
+     * Set the number of bytes of each body that are logged; the rest is left out
+     *
+     * @param maxBodyBytes the number of bytes, 0 to leave the bodies out
+     * @return the reference to this class instance
+     */
+    public WireLogging maxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+        return this;
+    }
+
+    /**
+     * Set the headers whose values are never logged, replacing the default ones
+     *
+     * @param headers the header names, in any case
+     * @return the reference to this class instance
+     */
+    public WireLogging redact(String... headers) {
+        this.redacted = redactions(Arrays.asList(headers));
+        return this;
+    }
+
+    /**
+     * Set the executor formatting and logging the exchanges, instead of the background thread shared by
+     * every wire logging
+     *
+     * @param executor the executor
+     * @return the reference to this class instance
+     */
+    public WireLogging executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Send the formatted exchanges to the given sink instead of the logger
+     *
+     * @param sink the consumer of each formatted exchange
+     * @return the reference to this class instance
+     */
+    public WireLogging sink(Consumer<String> sink) {
+        this.sink = sink;
+        return this;
+    }
+
+    private static Set<String> redactions(Iterable<String> headers) {
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach(names::add);
+        return Collections.unmodifiableSet(names);
+    }
+
+    /* *
+     * Logging
+     */
+
+    /**
+     * Should an exchange of the given route be logged? It should if the logger is enabled and the exchange is
+     * drawn in the sample of its route.
+     *
+     * @param route the route of the exchange, or null if it has none
+     * @return a boolean answering the question
+     */
+    public boolean isSampled(String route) {
+        if (sink == null && !LOGGER.isInfoEnabled()) {
+            return false;
+        }
+
+        Double routeRate = route == null ? null : routeRates.get(route);
+        double share = routeRate != null ? routeRate : rate;
+        return share >= 1.0 || (share > 0.0 && ThreadLocalRandom.current().nextDouble() < share);
+    }
+
+    /**
+     * Log a sampled exchange: a snapshot of it is taken on the calling thread, and formatted and logged later
+     *
+     * @param request   the request, as sent
+     * @param response  the response, or null if the exchange failed
+     * @param failure   the failure of the exchange, or null if there is a response
+     * @param elapsedNs the duration of the exchange, in nanoseconds
+     */
+    public void log(HttpRequestBase request, Response response, IOException failure, long elapsedNs) {
+        HttpEntity body = request instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+
+        /* === a body that can only be read once is left out, the others are read again on the background thread === */
+        Exchange exchange = new Exchange(request.getMethod(), request.getURI(), request.getAllHeaders(),
+                body != null && body.isRepeatable() && !body.isStreaming() ? body : null, response, failure, elapsedNs);
+
+        try {
+            (executor != null ? executor : Background.EXECUTOR).execute(() -> write(exchange));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private void write(Exchange exchange) {
+        String line = format(exchange);
+        if (sink != null) {
+            sink.accept(line);
+        } else {
+            LOGGER.info(line);
+        }
+    }
+
+    private String format(Exchange exchange) {
+        StringBuilder out = new StringBuilder(256)
+                .append(exchange.method).append(' ').append(exchange.uri).append(" -> ");
+
+        if (exchange.response != null) {
+            out.append(exchange.response.getStatusCode());
+        } else {
+            out.append("failed");
+        }
+        out.append(" in ").append(TimeUnit.NANOSECONDS.toMillis(exchange.elapsedNs)).append(" ms");
+
+        if (exchange.failure != null) {
+            out.append(": ").append(exchange.failure);
+        }
+
+        headers(out, '>', exchange.requestHeaders);
+        if (exchange.requestBody != null && maxBodyBytes > 0) {
+            requestBody(out, exchange.requestBody);
+        }
+
+        if (exchange.response != null) {
+            headers(out, '<', exchange.response.getHeaders());
+            byte[] bytes = exchange.response.getBody();
+            if (bytes.length > 0 && maxBodyBytes > 0) {
+                out.append("\n< ");
+                body(out, bytes, bytes.length, exchange.response.getCharset());
+            }
+        }
+
+        return out.toString();
+    }
+
+    private void headers(StringBuilder out, char direction, Header[] headers) {
+        for (Header header : headers) {
+            out.append('\n').append(direction).append(' ').append(header.getName()).append(": ")
+                    .append(redacted.contains(header.getName()) ? REDACTED : header.getValue());
+        }
+    }
+
+    private void requestBody(StringBuilder out, HttpEntity entity) {
+        byte[] bytes = new byte[maxBodyBytes];
+        int read = 0;
+
+        try (InputStream in = entity.getContent()) {
+            int count;
+            while (read < bytes.length && (count = in.read(bytes, read, bytes.length - read)) != -1) {
+                read += count;
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            return;
+        }
+
+        long length = entity.getContentLength();
+        out.append("\n> ");
+        body(out, bytes, length >= read ? length : read, charset(entity));
+    }
+
+    /* === the head of a body, up to the limit, and how much of it was left out === */
+    private void body(StringBuilder out, byte[] bytes, long length, Charset charset) {
+        int shown = (int) Math.min(Math.min(length, bytes.length), maxBodyBytes);
+        out.append(new String(bytes, 0, shown, charset));
+
+        if (length > shown) {
+            out.append("... (").append(length - shown).append(" more bytes)");
+        }
+    }
+
+    private static Charset charset(HttpEntity entity) {
+        try {
+            ContentType type = ContentType.get(entity);
+            return type != null && type.getCharset() != null ? type.getCharset() : StandardCharsets.UTF_8;
+        } catch (RuntimeException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    /* *
+     * Getters and statistics
+     */
+
+    /**
+     * Get the share of the exchanges logged for the routes without a rate of their own
+     *
+     * @return the sampling rate
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Get the number of bytes of each body that are logged
+     *
+     * @return the number of bytes
+     */
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    /**
+     * Get the headers whose values are never logged
+     *
+     * @return the header names, compared ignoring case
+     */
+    public Set<String> getRedacted() {
+        return redacted;
+    }
+
+    /**
+     * Get the number of sampled exchanges dropped because the background thread fell behind
+     *
+     * @return the number of exchanges
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /* === a snapshot of an exchange; the response is immutable and its body shared, not copied === */
+    private static final class Exchange {
+        private final String method;
+        private final URI uri;
+        private final Header[] requestHeaders;
+        private final HttpEntity requestBody;
+        private final Response response;
+        private final IOException failure;
+        private final long elapsedNs;
+
+        Exchange(String method, URI uri, Header[] requestHeaders, HttpEntity requestBody,
+                 Response response, IOException failure, long elapsedNs) {
+            this.method = method;
+            this.uri = uri;
+            this.requestHeaders = requestHeaders;
+            this.requestBody = requestBody;
+            this.response = response;
+            this.failure = failure;
+            this.elapsedNs = elapsedNs;
+        }
+    }
+
+    /* === a single daemon thread, created on first use, behind a bounded queue === */
+    private static final class Background {
+        private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(4096), runnable -> {
+                    Thread thread = new Thread(runnable, "http-wire-log");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
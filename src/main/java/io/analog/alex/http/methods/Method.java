@@ -1,30 +1,120 @@
 package io.analog.alex.http.methods;
 
+import com.google.gson.JsonIOException;
+import com.google.gson.reflect.TypeToken;
 import io.analog.alex.functional.monads.Either;
+import io.analog.alex.http.Http;
+import io.analog.alex.http.cache.CachedResponse;
+import io.analog.alex.http.cache.ResponseCache;
+import io.analog.alex.http.cache.SingleFlight;
+import io.analog.alex.http.compression.Compression;
+import io.analog.alex.http.http2.Http2Client;
+import io.analog.alex.http.logging.WireLogging;
+import io.analog.alex.http.metrics.Instrumentation;
+import io.analog.alex.http.metrics.Phase;
+import io.analog.alex.http.metrics.RequestMetrics;
+import io.analog.alex.http.metrics.RequestSample;
+import io.analog.alex.http.resilience.CircuitBreaker;
+import io.analog.alex.http.resilience.CircuitBreakers;
+import io.analog.alex.http.resilience.CircuitOpenException;
+import io.analog.alex.http.resilience.Limiter;
+import io.analog.alex.http.resilience.Limiters;
+import io.analog.alex.http.resilience.Deadline;
+import io.analog.alex.http.resilience.RetryPolicy;
+import io.analog.alex.http.transport.Transport;
+import io.analog.alex.http.model.DownloadResponse;
 import io.analog.alex.http.model.Response;
+import io.analog.alex.http.model.StreamingResponse;
+import io.analog.alex.utils.ChannelUtils;
+import io.analog.alex.utils.GsonUtils;
+import io.analog.alex.utils.JsonArrayIterator;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.ObservableOnSubscribe;
-import io.reactivex.schedulers.Schedulers;
+import io.reactivex.Scheduler;
+import org.apache.http.Header;
 import org.apache.http.HttpException;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.lang.invoke.WrongMethodTypeException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class Method {
     protected HttpRequestBase request;
     protected CloseableHttpClient client;
+    protected CloseableHttpAsyncClient asyncClient;
+    private Transport transport;
+    private List<NameValuePair> parameters;
+    private ResponseCache cache;
+    private SingleFlight singleFlight;
+    private RequestMetrics metrics;
+    private String route;
+    private Duration deadline;
+    private RetryPolicy retryPolicy;
+    private CircuitBreakers circuitBreakers;
+    private String circuitKey;
+    private Limiters limiters;
+    private WireLogging wireLogging;
+    private volatile Deadline expired;
 
     public abstract String getMethod();
 
+    /**
+     * Does repeating the request have the same effect on the server as sending it once?
+     *
+     * @return a boolean answering the question
+     */
+    public boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * Can the request be sent again e.g. when retried? It cannot if its body can only be written once.
+     *
+     * @return a boolean answering the question
+     */
+    protected boolean isReplayable() {
+        return true;
+    }
+
 
     protected Method(CloseableHttpClient client) {
         this.client = client;
@@ -42,24 +132,255 @@ public abstract class Method {
     }
 
     /**
-     * Add a URL parameter to the URI
+     * Set the non-blocking HttpClient manually
+     *
+     * @param asyncClient a pre-configured and started Apache Http Async Client to override the default one
+     * @return the abstract http Method
+     */
+    public Method setAsyncClient(CloseableHttpAsyncClient asyncClient) {
+        this.asyncClient = asyncClient;
+        return this;
+    }
+
+    /**
+     * Send this request over HTTP/2 with the given client, instead of the default one set in
+     * {@link io.analog.alex.http.Http} (if any), multiplexed with the other requests to the same host
+     *
+     * @param http2Client the HTTP/2 client e.g. <code>new Http2Config().build()</code>
+     * @return the abstract http Method
+     */
+    public Method http2(Http2Client http2Client) {
+        this.transport = http2Client;
+        return this;
+    }
+
+    /**
+     * Send this request with the given transport, instead of the default one set in
+     * {@link io.analog.alex.http.Http} (if any) or the clients of this request
+     *
+     * @param transport the transport e.g. <code>Transports.jdk()</code>
+     * @return the abstract http Method
+     */
+    public Method transport(Transport transport) {
+        this.transport = transport;
+        return this;
+    }
+
+    /**
+     * Serve this GET request through a client-side cache honouring the Cache-Control, ETag and
+     * Last-Modified headers, instead of the default one set in {@link io.analog.alex.http.Http} (if any)
+     *
+     * @param cache the response cache
+     * @return the abstract http Method
+     */
+    public Method cache(ResponseCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Share the exchange with identical requests already in flight (same method, URI and key headers) instead of
+     * the default single-flight group set in {@link io.analog.alex.http.Http} (if any). Only idempotent requests
+     * without a payload are coalesced.
+     *
+     * @param singleFlight the single-flight group
+     * @return the abstract http Method
+     */
+    public Method singleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+        return this;
+    }
+
+    /**
+     * Set the socket timeout i.e. the longest period of inactivity between two data packets
+     * (overrides the default set in {@link io.analog.alex.http.Http})
+     *
+     * @param timeout the socket timeout; zero means no timeout
+     * @return the abstract http Method
+     */
+    public Method timeout(Duration timeout) {
+        this.request.setConfig(config().setSocketTimeout(millis(timeout)).build());
+        return this;
+    }
+
+    /**
+     * Set the timeout until a connection with the server is established
+     * (overrides the default set in {@link io.analog.alex.http.Http})
+     *
+     * @param timeout the connect timeout; zero means no timeout
+     * @return the abstract http Method
+     */
+    public Method connectTimeout(Duration timeout) {
+        this.request.setConfig(config().setConnectTimeout(millis(timeout)).build());
+        return this;
+    }
+
+    /**
+     * Set the timeout to lease a connection from the pool, when every connection to the route is in use
+     * (overrides the default set in {@link io.analog.alex.http.Http})
+     *
+     * @param timeout the lease timeout; zero means no timeout
+     * @return the abstract http Method
+     */
+    public Method leaseTimeout(Duration timeout) {
+        this.request.setConfig(config().setConnectionRequestTimeout(millis(timeout)).build());
+        return this;
+    }
+
+    /**
+     * Set an overall deadline, covering everything from leasing a connection to reading the body: once it
+     * passes the request is aborted and fails with a {@link io.analog.alex.http.resilience.DeadlineExceededException}
+     * (overrides the default set in {@link io.analog.alex.http.Http})
+     *
+     * @param deadline the deadline
+     * @return the abstract http Method
+     */
+    public Method deadline(Duration deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    /**
+     * Retry this request according to the given policy, instead of the default one set in
+     * {@link io.analog.alex.http.Http} (if any). Retries apply to the buffered execution paths:
+     * execute, executeToOptional, executeToObservable, executeAsync and executeNonBlocking, the last two
+     * waiting for the backoff on a timer instead of holding a thread. The deadline covers every attempt.
+     *
+     * @param retryPolicy the retry policy
+     * @return the abstract http Method
+     */
+    public Method retry(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Guard this request with the given circuit breakers, instead of the default ones set in
+     * {@link io.analog.alex.http.Http} (if any): while the circuit of its destination is open, the request
+     * fails fast with a {@link io.analog.alex.http.resilience.CircuitOpenException}
+     *
+     * @param circuitBreakers the circuit breakers
+     * @return the abstract http Method
+     */
+    public Method circuitBreakers(CircuitBreakers circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+        return this;
+    }
+
+    /**
+     * Share a circuit with every request using the same key, instead of the one of its host
+     *
+     * @param key the circuit key e.g. a route or a service name
+     * @return the abstract http Method
+     */
+    public Method circuitKey(String key) {
+        this.circuitKey = key;
+        return this;
+    }
+
+    /**
+     * Limit this request with the given limiters, instead of the default ones set in
+     * {@link io.analog.alex.http.Http} (if any): the request waits for a permit and a slot of its host, and
+     * fails with a {@link io.analog.alex.http.resilience.LimitExceededException} if none frees up in time
+     *
+     * @param limiters the limiters
+     * @return the abstract http Method
+     */
+    public Method limiters(Limiters limiters) {
+        this.limiters = limiters;
+        return this;
+    }
+
+    /**
+     * Record the timings, status and byte counts of this request in the given metrics, instead of the
+     * default ones set in {@link io.analog.alex.http.Http} (if any)
+     *
+     * @param metrics the request metrics
+     * @return the abstract http Method
+     */
+    public Method metrics(RequestMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Tag the metrics of this request with a route template, grouping requests to the same resource
+     *
+     * @param template the route template e.g. <code>/person/{id}</code>
+     * @return the abstract http Method
+     */
+    public Method route(String template) {
+        this.route = template;
+        return this;
+    }
+
+    /**
+     * Log a sample of the exchanges of this request with the given wire logging, instead of the default one
+     * set in {@link io.analog.alex.http.Http} (if any); the route of the request picks its sampling rate
+     *
+     * @param wireLogging the wire logging e.g. <code>new WireLogging().sample(0.01)</code>
+     * @return the abstract http Method
+     */
+    public Method wireLogging(WireLogging wireLogging) {
+        this.wireLogging = wireLogging;
+        return this;
+    }
+
+    /**
+     * Add a URL parameter to the URI. Parameters are collected and encoded into the URI
+     * only once, when the request is executed.
      *
      * @param key   the parameter name
      * @param value the parameter value
      * @return the modified abstract http Method
      */
     public Method addParameter(String key, String value) {
-        try {
-            URI nUri = new URIBuilder(this.request.getURI()).addParameter(key, value).build();
-            this.request.setURI(nUri);
+        pendingParameters().add(new BasicNameValuePair(key, value));
+        return this;
+    }
 
-        } catch (URISyntaxException e) {
-            throw new WrongMethodTypeException("URI parsing exited via a critical exception");
+    /**
+     * Add a URL parameter with several values to the URI i.e. <code>key=one&amp;key=two</code>
+     *
+     * @param key    the parameter name
+     * @param values the parameter values, each written as its String value
+     * @return the modified abstract http Method
+     */
+    public Method addParameters(String key, Iterable<?> values) {
+        List<NameValuePair> pending = pendingParameters();
+        for (Object value : values) {
+            pending.add(new BasicNameValuePair(key, String.valueOf(value)));
         }
+        return this;
+    }
 
+    /**
+     * Add several URL parameters to the URI; a value that is an {@link java.lang.Iterable}
+     * is added as a multi-valued parameter, any other value is written as its String value
+     *
+     * @param parameters the parameter names mapped to their values
+     * @return the modified abstract http Method
+     */
+    public Method addParameters(Map<String, ?> parameters) {
+        parameters.forEach((key, value) -> {
+            if (value instanceof Iterable) {
+                addParameters(key, (Iterable<?>) value);
+            } else {
+                addParameter(key, String.valueOf(value));
+            }
+        });
         return this;
     }
 
+    /**
+     * Get the URI of the request, with every added URL parameter
+     *
+     * @return the request {@link java.net.URI}
+     */
+    public URI getURI() {
+        return prepared().getURI();
+    }
+
     /**
      * Add an HTTP Header on a  key | value basis
      *
@@ -83,8 +404,8 @@ public abstract class Method {
      * @return the response as an {@link java.util.Optional}
      */
     public Optional<Response> executeToOptional() {
-        try (CloseableHttpResponse response = client.execute(request)) {
-            return Optional.of(new InnerResponse(response));
+        try {
+            return Optional.of(exchange());
         } catch (IOException e) {
             return Optional.empty();
         }
@@ -97,43 +418,823 @@ public abstract class Method {
      * @return the response as an {@link io.analog.alex.functional.monads.Either}
      */
     public Either<IOException, Response> execute() {
-        try (CloseableHttpResponse response = client.execute(request)) {
-            return Either.right(new InnerResponse(response));
+        try {
+            return Either.right(exchange());
+
+        } catch (IOException e) {
+            return Either.left(e);
+        }
+    }
+
+    /**
+     * execute the HTTP call and hand the unread body to a handler, as a stream read straight from the
+     * connection; the body is never buffered in memory. The connection is released back to the pool
+     * when the handler returns (discarding whatever the handler did not read), or closed if the handler throws.
+     * An {@link java.io.UncheckedIOException} thrown by the handler is unwrapped into a 'left' Either.
+     *
+     * @param <T>     the type the handler produces
+     * @param handler a function that consumes the {@link io.analog.alex.http.model.StreamingResponse}
+     * @return the handler result as an {@link io.analog.alex.functional.monads.Either}
+     */
+    public <T> Either<IOException, T> executeStreaming(Function<StreamingResponse, T> handler) {
+        return executeStreaming(handler, Phase.BODY_READ);
+    }
+
+    /* === the handler's time is recorded as the given phase === */
+    private <T> Either<IOException, T> executeStreaming(Function<StreamingResponse, T> handler, Phase phase) {
+        Limiter limiter;
+        try {
+            limiter = limit(prepared(), true);
+        } catch (IOException e) {
+            return Either.left(e);
+        }
+
+        RequestSample sample = sample();
+        Deadline armed = arm();
+        int statusCode = 0;
+        IOException failure = null;
+
+        try (CloseableHttpResponse response = open(sample)) {
+            statusCode = response.getStatusLine().getStatusCode();
+            long start = System.nanoTime();
+            T result = handler.apply(new StreamingResponse(response));
+            EntityUtils.consume(response.getEntity());
+            record(sample, phase, start);
+            return Either.right(result);
+
+        } catch (UncheckedIOException e) {
+            failure = translate(armed, e.getCause());
+            fail(sample, failure);
+            return Either.left(failure);
+        } catch (IOException e) {
+            failure = translate(armed, e);
+            fail(sample, failure);
+            return Either.left(failure);
+        } finally {
+            release(limiter, statusCode, failure);
+            disarm(armed);
+            finish(sample);
+        }
+    }
+
+    /**
+     * execute the HTTP call and deserialize the JSON body straight from the connection into the given class,
+     * with the charset declared by the response and the shared Gson of {@link io.analog.alex.utils.GsonUtils}.
+     * A non successful (non 2xx) response ends in a 'left' {@link org.apache.http.client.HttpResponseException}.
+     *
+     * @param <T>     a type parameter
+     * @param classOf the class wished to be parsed to
+     * @return an instance of the given T class as an {@link io.analog.alex.functional.monads.Either}
+     * @throws com.google.gson.JsonSyntaxException - if parsing fails
+     */
+    public <T> Either<IOException, T> executeAs(Class<T> classOf) {
+        return executeAs(TypeToken.get(classOf));
+    }
+
+    /**
+     * execute the HTTP call and deserialize the JSON body straight from the connection into the given type,
+     * e.g. <code>new TypeToken&lt;List&lt;Person&gt;&gt;() {}</code>, with the charset declared by the response
+     * and the shared Gson of {@link io.analog.alex.utils.GsonUtils}. A non successful (non 2xx) response ends
+     * in a 'left' {@link org.apache.http.client.HttpResponseException}.
+     *
+     * @param <T>  a type parameter
+     * @param type the type wished to be parsed to
+     * @return an instance of the given T type as an {@link io.analog.alex.functional.monads.Either}
+     * @throws com.google.gson.JsonSyntaxException - if parsing fails
+     */
+    public <T> Either<IOException, T> executeAs(TypeToken<T> type) {
+        return executeStreaming(streaming -> {
+            try (InputStream in = streaming.getInputStream()) {
+                if (!streaming.isSuccessful()) {
+                    throw new HttpResponseException(streaming.getStatusCode(), streaming.getReasonPhrase());
+                }
+
+                Reader reader = new InputStreamReader(in, streaming.getCharset());
+                return GsonUtils.gson().<T>fromJson(reader, type.getType());
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (JsonIOException e) {
+                throw new UncheckedIOException(e.getCause() instanceof IOException
+                        ? (IOException) e.getCause()
+                        : new IOException(e));
+            }
+        }, Phase.DESERIALIZATION);
+    }
+
+    /**
+     * Reactive execution of the HTTP call whose body is a JSON array: each element is decoded from the
+     * connection and emitted as soon as it is read, honouring the subscriber's backpressure, so memory stays
+     * bounded whatever the size of the array. The call is subscribed on the default scheduler set in
+     * {@link io.analog.alex.http.Http}; cancelling the subscription closes the connection.
+     *
+     * @param <T>     a type parameter
+     * @param classOf the class of the array elements
+     * @return the elements as a {@link io.reactivex.Flowable}
+     */
+    public <T> Flowable<T> executeToFlowableOf(Class<T> classOf) {
+        return Flowable.using(
+                () -> openArray(classOf),
+                iterator -> Flowable.fromIterable(() -> iterator),
+                JsonArrayIterator::close)
+                .subscribeOn(Http.scheduler());
+    }
+
+    /**
+     * Reactive execution of the HTTP call whose body is a JSON array, emitting each element as soon as
+     * it is decoded, like {@link #executeToFlowableOf(Class)} but without backpressure
+     *
+     * @param <T>     a type parameter
+     * @param classOf the class of the array elements
+     * @return the elements as an {@link io.reactivex.Observable}
+     */
+    public <T> Observable<T> executeToObservableOf(Class<T> classOf) {
+        return executeToFlowableOf(classOf).toObservable();
+    }
+
+    /**
+     * execute the HTTP call whose body is a JSON array and return its elements as a lazy Stream, decoded
+     * from the connection one at a time as the Stream is consumed. The Stream holds the connection and
+     * must be closed e.g. in a try-with-resources block.
+     *
+     * @param <T>     a type parameter
+     * @param classOf the class of the array elements
+     * @return the elements as a {@link java.util.stream.Stream} in an {@link io.analog.alex.functional.monads.Either}
+     */
+    public <T> Either<IOException, Stream<T>> executeToStreamOf(Class<T> classOf) {
+        try {
+            JsonArrayIterator<T> iterator = openArray(classOf);
+            /* === not NONNULL: a null in the JSON array is bound to a null element === */
+            Spliterator<T> elements = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+
+            return Either.right(StreamSupport.stream(elements, false).onClose(() -> {
+                try {
+                    iterator.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
 
         } catch (IOException e) {
             return Either.left(e);
         }
     }
 
+    /* === lease a connection and position a reader at the start of the body's JSON array === */
+    private <T> JsonArrayIterator<T> openArray(Class<T> classOf) throws IOException {
+        Limiter limiter = limit(prepared(), true);
+        RequestSample sample = sample();
+        Deadline armed = arm();
+        CloseableHttpResponse response;
+
+        try {
+            response = open(sample);
+        } catch (IOException e) {
+            IOException failure = translate(armed, e);
+            release(limiter, 0, failure);
+            disarm(armed);
+            fail(sample, failure);
+            finish(sample);
+            throw failure;
+        }
+
+        int statusCode = response.getStatusLine().getStatusCode();
+        Closeable release = sample == null && armed == null && limiter == null ? response : () -> {
+            try {
+                response.close();
+            } finally {
+                release(limiter, statusCode, null);
+                disarm(armed);
+                finish(sample);
+            }
+        };
+
+        try {
+            StreamingResponse streaming = new StreamingResponse(response);
+            if (!streaming.isSuccessful()) {
+                throw new HttpResponseException(streaming.getStatusCode(), streaming.getReasonPhrase());
+            }
+
+            Reader reader = new InputStreamReader(streaming.getInputStream(), streaming.getCharset());
+            return new JsonArrayIterator<>(reader, GsonUtils.gson(), classOf, release);
+
+        } catch (IOException | RuntimeException e) {
+            release.close();
+            throw e;
+        }
+    }
+
+    /**
+     * execute the HTTP call and write a successful (2xx) body straight to the given channel through a
+     * fixed-size direct buffer, never holding the body in memory
+     *
+     * @param channel the channel the body is written to; it is not closed
+     * @return the status, headers and number of bytes written as an {@link io.analog.alex.functional.monads.Either}
+     */
+    public Either<IOException, DownloadResponse> executeTo(WritableByteChannel channel) {
+        return executeStreaming(streaming -> {
+            if (!streaming.isSuccessful()) {
+                return new DownloadResponse(streaming, 0);
+            }
+
+            try {
+                return new DownloadResponse(streaming, ChannelUtils.transfer(streaming.getChannel(), channel));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * execute the HTTP call and write a successful (2xx) body straight to the given file, replacing it
+     *
+     * @param path the file the body is written to
+     * @return the status, headers and number of bytes written as an {@link io.analog.alex.functional.monads.Either}
+     */
+    public Either<IOException, DownloadResponse> executeToFile(Path path) {
+        return executeToFile(path, false);
+    }
+
+    /**
+     * execute the HTTP call and write a successful (2xx) body straight to the given file. When resuming,
+     * only the bytes past the current size of the file are requested (via a Range header) and appended
+     * to it; if the server ignores the range, the file is replaced by the full body.
+     *
+     * @param path   the file the body is written to
+     * @param resume whether to resume a partial download of the file
+     * @return the status, headers and number of bytes written as an {@link io.analog.alex.functional.monads.Either}
+     */
+    public Either<IOException, DownloadResponse> executeToFile(Path path, boolean resume) {
+        /* === the range is only asked for in this call, the caller's own headers are put back after it === */
+        Header[] range = request.getHeaders(HttpHeaders.RANGE);
+        Header[] acceptEncoding = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        try {
+            if (resume && Files.exists(path) && Files.size(path) > 0) {
+                this.request.setHeader(HttpHeaders.RANGE, "bytes=" + Files.size(path) + "-");
+                /* === a range of a compressed body cannot be decoded on its own === */
+                this.request.setHeader(HttpHeaders.ACCEPT_ENCODING, "identity");
+            }
+            return download(path);
+
+        } catch (IOException e) {
+            return Either.left(e);
+        } finally {
+            restore(HttpHeaders.RANGE, range);
+            restore(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+    }
+
+    private Either<IOException, DownloadResponse> download(Path path) {
+        return executeStreaming(streaming -> {
+            if (!streaming.isSuccessful()) {
+                return new DownloadResponse(streaming, 0);
+            }
+
+            StandardOpenOption mode = streaming.getStatusCode() == HttpStatus.SC_PARTIAL_CONTENT
+                    ? StandardOpenOption.APPEND
+                    : StandardOpenOption.TRUNCATE_EXISTING;
+
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+                return new DownloadResponse(streaming, ChannelUtils.transfer(streaming.getChannel(), file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     /**
      * An asynchronous execution of the HTTP call, generation a CompleatableFuture object
-     * that holds the promise
+     * that holds the promise. The call runs on the default executor set in {@link io.analog.alex.http.Http}.
      *
      * @return the response as an {@link java.util.concurrent.CompletableFuture}
      */
     public CompletableFuture<Either<IOException, Response>> executeAsync() {
-        return CompletableFuture.supplyAsync(this::execute);
+        return executeAsync(Http.executor());
+    }
+
+    /**
+     * An asynchronous execution of the HTTP call on the given executor, generation a CompleatableFuture object
+     * that holds the promise
+     *
+     * @param executor the executor that runs the blocking call e.g. a bounded pool
+     * @return the response as an {@link java.util.concurrent.CompletableFuture}
+     */
+    public CompletableFuture<Either<IOException, Response>> executeAsync(Executor executor) {
+        RetryPolicy policy = retryPolicy();
+        if (policy == null) {
+            return CompletableFuture.supplyAsync(this::execute, executor);
+        }
+
+        /* === every attempt runs on the executor, the backoff between them on a timer === */
+        Deadline armed = arm();
+        return policy.executeAsync(isRetryable(policy), () -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return Either.<IOException, Response>right(attempt(armed));
+            } catch (IOException e) {
+                return Either.<IOException, Response>left(e);
+            }
+        }, executor)).whenComplete((outcome, error) -> disarm(armed));
+    }
+
+    /**
+     * A non-blocking execution of the HTTP call over an NIO based client: no thread is held while the
+     * request is in flight. The returned CompletableFuture is completed by an I/O reactor thread, so
+     * any heavy work chained to it should use the <code>*Async</code> stage variants.
+     *
+     * @return the response as an {@link java.util.concurrent.CompletableFuture}
+     */
+    public CompletableFuture<Either<IOException, Response>> executeNonBlocking() {
+        RetryPolicy policy = retryPolicy();
+        Deadline armed = arm();
+
+        CompletableFuture<Either<IOException, Response>> outcome = policy == null
+                ? sendNonBlocking(armed)
+                : policy.executeAsync(isRetryable(policy), () -> sendNonBlocking(armed));
+
+        return outcome.whenComplete((either, error) -> disarm(armed));
+    }
+
+    /* === a single round trip over the transport when there is one, or else the NIO client === */
+    private CompletableFuture<Either<IOException, Response>> sendNonBlocking(Deadline armed) {
+        CompletableFuture<Either<IOException, Response>> promise = new CompletableFuture<>();
+        RequestSample sample = sample();
+        HttpRequestBase request = prepared();
+        CircuitBreaker circuit = circuit(request);
+        Limiter limiter;
+
+        /* === no thread may wait here, so a request beyond the limits of its host fails fast === */
+        try {
+            limiter = limit(request, false);
+        } catch (IOException e) {
+            fail(sample, e);
+            finish(sample);
+            promise.complete(Either.left(e));
+            return promise;
+        }
+
+        if (circuit != null) {
+            try {
+                circuit.acquire();
+            } catch (CircuitOpenException e) {
+                release(limiter, 0, e);
+                fail(sample, e);
+                finish(sample);
+                promise.complete(Either.left(e));
+                return promise;
+            }
+        }
+
+        WireLogging wire = wireLogging();
+        long sent = System.nanoTime();
+        FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                release(limiter, response.getStatusLine().getStatusCode(), null);
+                if (circuit != null) {
+                    circuit.onResponse(System.nanoTime() - sent, response.getStatusLine().getStatusCode());
+                }
+                if (sample != null) {
+                    sample.setStatusCode(response.getStatusLine().getStatusCode());
+                }
+
+                try {
+                    long start = System.nanoTime();
+                    Compression compression = Http.compression();
+                    if (compression != null) {
+                        compression.decode(response);
+                    }
+                    Response read = new InnerResponse(response);
+                    record(sample, Phase.BODY_READ, start);
+                    finish(sample);
+                    log(wire, request, read, null, sent);
+                    promise.complete(Either.right(read));
+                } catch (IOException e) {
+                    complete(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                IOException failure = e instanceof IOException ? (IOException) e : new IOException(e);
+                release(limiter, 0, failure);
+                if (circuit != null) {
+                    settle(circuit, request, sent);
+                }
+                complete(failure);
+            }
+
+            @Override
+            public void cancelled() {
+                release(limiter, 0, new RequestAbortedException("Request cancelled"));
+                if (circuit != null) {
+                    circuit.onIgnored();
+                }
+                complete(new RequestAbortedException("Request cancelled"));
+            }
+
+            private void complete(IOException e) {
+                IOException failure = translate(armed, e);
+                fail(sample, failure);
+                finish(sample);
+                log(wire, request, null, failure, sent);
+                promise.complete(Either.left(failure));
+            }
+        };
+
+        try {
+            Transport engine = transport();
+            if (engine != null) {
+                engine.execute(request, callback);
+            } else {
+                (asyncClient != null ? asyncClient : Http.asyncClient()).execute(request, callback);
+            }
+
+        } catch (RuntimeException e) {
+            /* === refused before anything was sent e.g. by a stopped reactor: a failure of the client, not of the destination === */
+            IOException failure = new IOException(e);
+            release(limiter, 0, failure);
+            if (circuit != null) {
+                circuit.onIgnored();
+            }
+            fail(sample, failure);
+            finish(sample);
+            log(wire, request, null, failure, sent);
+            promise.complete(Either.left(failure));
+        }
+
+        return promise;
     }
 
     /**
      * Using an {@link io.reactivex.Observable} parameterized with a {@link io.analog.alex.http.model.Response} object
      * this method allows the caller to handle the Http response in a reactive manner, not to dissimilar with the standart
-     * Http call in a modern RxJs framework.
+     * Http call in a modern RxJs framework. The call is subscribed on the default scheduler set in
+     * {@link io.analog.alex.http.Http}.
      *
      * @return the response as an {@link io.reactivex.Observable}
      */
     public Observable<Response> executeToObservable() {
+        return executeToObservable(Http.scheduler());
+    }
+
+    /**
+     * Reactive execution of the HTTP call, like {@link #executeToObservable()}, subscribed on the given scheduler
+     *
+     * @param scheduler the scheduler that runs the blocking call
+     * @return the response as an {@link io.reactivex.Observable}
+     */
+    public Observable<Response> executeToObservable(Scheduler scheduler) {
         ObservableOnSubscribe<Response> emitEvent = emitter -> {
 
-            try (CloseableHttpResponse response = client.execute(request)) {
-                emitter.onNext(new InnerResponse(response));
+            try {
+                emitter.onNext(exchange());
 
             } catch (IOException e) {
                 throw new HttpException(e.getMessage());
             }
         };
 
-        return Observable.create(emitEvent).subscribeOn(Schedulers.io());
+        return Observable.create(emitEvent).subscribeOn(scheduler);
+    }
+
+    /* === a full exchange, retried when there is a retry policy and aborted if it outlives its deadline === */
+    protected Response exchange() throws IOException {
+        RetryPolicy policy = retryPolicy();
+        Deadline armed = arm();
+
+        try {
+            return policy == null ? attempt(armed) : policy.execute(isRetryable(policy), () -> attempt(armed));
+        } finally {
+            disarm(armed);
+        }
+    }
+
+    /* === an attempt fails with a DeadlineExceededException once the deadline passed, so it is never retried === */
+    private Response attempt(Deadline armed) throws IOException {
+        try {
+            return coalescedExchange(armed);
+        } catch (IOException e) {
+            throw translate(armed, e);
+        }
+    }
+
+    private RetryPolicy retryPolicy() {
+        return this.retryPolicy != null ? this.retryPolicy : Http.retryPolicy();
+    }
+
+    private boolean isRetryable(RetryPolicy policy) {
+        return (isIdempotent() || !policy.isIdempotentOnly()) && isReplayable();
+    }
+
+    /* === an exchange collapsed into an identical one in flight when single-flight is on, waited on until the deadline === */
+    private Response coalescedExchange(Deadline armed) throws IOException {
+        SingleFlight group = this.singleFlight != null ? this.singleFlight : Http.singleFlight();
+
+        if (group == null || !isIdempotent() || this instanceof MethodWithPayload) {
+            return cachedExchange();
+        }
+
+        return group.execute(flightKey(group), armed, this::leadingExchange);
+    }
+
+    /* === whatever an abort broke (a lease, a read) surfaces as one, so that the followers do not share it === */
+    private Response leadingExchange() throws IOException {
+        try {
+            return cachedExchange();
+        } catch (IOException e) {
+            if (request.isAborted() && !(e instanceof RequestAbortedException)) {
+                throw new RequestAbortedException("Request aborted", e);
+            }
+            throw e;
+        }
+    }
+
+    private String flightKey(SingleFlight group) {
+        StringBuilder key = new StringBuilder(getMethod()).append(' ').append(prepared().getURI());
+
+        for (String name : group.getKeyHeaders()) {
+            key.append('\n').append(name).append(':');
+            Header header = request.getFirstHeader(name);
+            if (header != null) {
+                key.append(header.getValue());
+            }
+        }
+
+        return key.toString();
+    }
+
+    /* === an exchange going through the response cache when there is one === */
+    private Response cachedExchange() throws IOException {
+        ResponseCache responseCache = this.cache != null ? this.cache : Http.cache();
+
+        if (responseCache == null || !"GET".equals(getMethod())) {
+            return send();
+        }
+
+        String key = prepared().getURI().toString();
+        boolean authorized = request.containsHeader(HttpHeaders.AUTHORIZATION);
+        long now = System.currentTimeMillis();
+        CachedResponse cached = responseCache.get(key).orElse(null);
+
+        if (cached == null) {
+            Response response = send();
+            CachedResponse.of(response, authorized, now).ifPresent(entry -> responseCache.put(key, entry));
+            return response;
+        }
+
+        if (cached.isFresh(now)) {
+            return cached.getResponse();
+        }
+
+        /* === stale: revalidate with the entry's validators, in place of the caller's own for this exchange only === */
+        Header[] ifNoneMatch = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        Header[] ifModifiedSince = request.getHeaders(HttpHeaders.IF_MODIFIED_SINCE);
+        cached.getEtag().ifPresent(etag -> request.setHeader(HttpHeaders.IF_NONE_MATCH, etag));
+        cached.getLastModified().ifPresent(date -> request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, date));
+
+        Response response;
+        try {
+            response = send();
+        } finally {
+            restore(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            restore(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+        }
+
+        if (response.getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+            responseCache.put(key, cached.revalidated(response, now));
+            return cached.getResponse();
+        }
+
+        Optional<CachedResponse> entry = CachedResponse.of(response, authorized, now);
+        if (entry.isPresent()) {
+            responseCache.put(key, entry.get());
+        } else {
+            responseCache.remove(key);
+        }
+        return response;
+    }
+
+    /* === put back the headers of a name as they were before an exchange changed them === */
+    private void restore(String name, Header[] headers) {
+        request.removeHeaders(name);
+        for (Header header : headers) {
+            request.addHeader(header);
+        }
+    }
+
+    /* === a single round trip over the blocking client === */
+    protected Response send() throws IOException {
+        return send(prepared());
+    }
+
+    /* === a single round trip of the given request e.g. a duplicate of this one === */
+    protected Response send(HttpRequestBase request) throws IOException {
+        Limiter limiter = limit(request, true);
+        RequestSample sample = sample();
+        WireLogging wire = wireLogging();
+        long sent = wire != null ? System.nanoTime() : 0L;
+        int statusCode = 0;
+        Response read = null;
+        IOException failure = null;
+
+        try (CloseableHttpResponse response = open(sample, request)) {
+            statusCode = response.getStatusLine().getStatusCode();
+            long start = System.nanoTime();
+            read = new InnerResponse(response);
+            record(sample, Phase.BODY_READ, start);
+            return read;
+
+        } catch (IOException e) {
+            failure = e;
+            fail(sample, e);
+            throw e;
+        } finally {
+            release(limiter, statusCode, failure);
+            finish(sample);
+            log(wire, request, read, failure, sent);
+        }
+    }
+
+    /* === lease a connection and send the request, binding the sample (if any) for the client's hooks === */
+    private CloseableHttpResponse open(RequestSample sample) throws IOException {
+        return open(sample, prepared());
+    }
+
+    /* === ... guarded by the circuit of its destination, when there are circuit breakers === */
+    private CloseableHttpResponse open(RequestSample sample, HttpRequestBase request) throws IOException {
+        CircuitBreaker circuit = circuit(request);
+        if (circuit == null) {
+            return connect(sample, request);
+        }
+
+        circuit.acquire();
+        long start = System.nanoTime();
+        try {
+            CloseableHttpResponse response = connect(sample, request);
+            circuit.onResponse(System.nanoTime() - start, response.getStatusLine().getStatusCode());
+            return response;
+
+        } catch (IOException e) {
+            settle(circuit, request, start);
+            throw e;
+        } catch (RuntimeException e) {
+            /* === a failure of the client rather than of the destination, the permit is given back === */
+            circuit.onIgnored();
+            throw e;
+        }
+    }
+
+    /* === the byte counts and the time to first byte are only measured by clients built from HttpClientConfig === */
+    private CloseableHttpResponse connect(RequestSample sample, HttpRequestBase request) throws IOException {
+        Transport engine = transport();
+        if (sample == null) {
+            return engine != null ? engine.execute(request) : client.execute(request);
+        }
+
+        Instrumentation.attach(sample);
+        try {
+            CloseableHttpResponse response = engine != null ? engine.execute(request) : client.execute(request);
+            sample.setStatusCode(response.getStatusLine().getStatusCode());
+            return response;
+        } finally {
+            Instrumentation.detach();
+        }
+    }
+
+    private Transport transport() {
+        return this.transport != null ? this.transport : Http.transport();
+    }
+
+    /* === the circuit of the destination of the request, or null when there are no circuit breakers === */
+    private CircuitBreaker circuit(HttpRequestBase request) {
+        CircuitBreakers breakers = this.circuitBreakers != null ? this.circuitBreakers : Http.circuitBreakers();
+        return breakers == null ? null : breakers.get(circuitKey != null ? circuitKey : request.getURI().getAuthority());
+    }
+
+    /* === take a permit and a slot of the destination of the request, or null when its host is not limited === */
+    private Limiter limit(HttpRequestBase request, boolean wait) throws IOException {
+        Limiters group = this.limiters != null ? this.limiters : Http.limiters();
+        Limiter limiter = group == null ? null : group.get(request.getURI().getHost());
+
+        if (limiter != null) {
+            limiter.acquire(wait ? group.getMaxWait() : Duration.ZERO);
+        }
+        return limiter;
+    }
+
+    private static void release(Limiter limiter, int statusCode, IOException failure) {
+        if (limiter != null) {
+            limiter.release(statusCode, failure);
+        }
+    }
+
+    /* === an aborted request (by a deadline or a winning hedge) says nothing about its destination === */
+    private static void settle(CircuitBreaker circuit, HttpRequestBase request, long start) {
+        if (request.isAborted()) {
+            circuit.onIgnored();
+        } else {
+            circuit.onFailure(System.nanoTime() - start);
+        }
+    }
+
+    /* === arm the deadline of this request, if it has one, to abort it once it passes === */
+    private Deadline arm() {
+        Deadline previous = this.expired;
+        if (previous != null) {
+            /* === cancel waits for the abort action of the previous deadline to return before the request is reset === */
+            this.expired = null;
+            previous.cancel();
+            request.reset();
+        }
+
+        Duration limit = this.deadline != null ? this.deadline : Http.deadline();
+        return limit == null ? null : Deadline.arm(limit, request::abort);
+    }
+
+    private static IOException translate(Deadline armed, IOException e) {
+        return armed == null ? e : armed.translate(e);
+    }
+
+    /* === an aborted request is reset on its next execution, as resetting it here may run within abort() itself === */
+    private void disarm(Deadline armed) {
+        if (armed != null) {
+            armed.cancel();
+            if (armed.isExpired()) {
+                this.expired = armed;
+            }
+        }
+    }
+
+    /* === the request config to derive a per-request one from: its own, the default one set in Http, or none === */
+    private RequestConfig.Builder config() {
+        RequestConfig current = request.getConfig() != null ? request.getConfig() : Http.requestConfig();
+        return current != null ? RequestConfig.copy(current) : RequestConfig.custom();
+    }
+
+    private static int millis(Duration timeout) {
+        return (int) Math.min(Integer.MAX_VALUE, timeout.toMillis());
+    }
+
+    /* === a sample of this exchange, or null when metrics are disabled so nothing is allocated === */
+    private RequestSample sample() {
+        RequestMetrics recorder = this.metrics != null ? this.metrics : Http.metrics();
+        return recorder == null ? null : new RequestSample(recorder, getMethod(), route != null ? route : "none");
+    }
+
+    /* === the wire logging of this exchange, or null when it is off or the exchange is not in its sample === */
+    private WireLogging wireLogging() {
+        WireLogging logging = this.wireLogging != null ? this.wireLogging : Http.wireLogging();
+        return logging != null && logging.isSampled(route) ? logging : null;
+    }
+
+    private static void log(WireLogging wire, HttpRequestBase request, Response response, IOException failure, long sent) {
+        if (wire != null && (response != null || failure != null)) {
+            wire.log(request, response, failure, System.nanoTime() - sent);
+        }
+    }
+
+    private static void record(RequestSample sample, Phase phase, long start) {
+        if (sample != null) {
+            sample.record(phase, System.nanoTime() - start);
+        }
+    }
+
+    private static void fail(RequestSample sample, IOException e) {
+        if (sample != null) {
+            sample.setFailure(e);
+        }
+    }
+
+    private static void finish(RequestSample sample) {
+        if (sample != null) {
+            sample.finish();
+        }
+    }
+
+    /* === the request, with any pending URL parameters encoded into its URI in a single pass === */
+    protected HttpRequestBase prepared() {
+        if (this.request.getConfig() == null && Http.requestConfig() != null) {
+            this.request.setConfig(Http.requestConfig());
+        }
+
+        if (parameters != null && !parameters.isEmpty()) {
+            try {
+                this.request.setURI(new URIBuilder(this.request.getURI()).addParameters(parameters).build());
+                parameters.clear();
+
+            } catch (URISyntaxException e) {
+                throw new WrongMethodTypeException("URI parsing exited via a critical exception");
+            }
+        }
+
+        return this.request;
+    }
+
+    private List<NameValuePair> pendingParameters() {
+        if (parameters == null) {
+            parameters = new ArrayList<>();
+        }
+        return parameters;
     }
 
     // --------
@@ -1,27 +1,39 @@
 package io.analog.alex.http.methods;
 
+import io.analog.alex.http.Http;
+import io.analog.alex.http.cache.ResponseCache;
+import io.analog.alex.http.cache.SingleFlight;
+import io.analog.alex.http.compression.Compression;
+import io.analog.alex.http.http2.Http2Client;
+import io.analog.alex.http.logging.WireLogging;
+import io.analog.alex.http.metrics.RequestMetrics;
 import io.analog.alex.http.model.Form;
+import io.analog.alex.http.model.JsonEntity;
 import io.analog.alex.http.model.UrlEncodedForm;
-import io.analog.alex.utils.GsonUtils;
+import io.analog.alex.http.resilience.CircuitBreakers;
+import io.analog.alex.http.resilience.Limiters;
+import io.analog.alex.http.resilience.RetryPolicy;
+import io.analog.alex.http.transport.Transport;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
-import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 
 import java.io.File;
 import java.io.InputStream;
-import java.lang.invoke.WrongMethodTypeException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
 
 public abstract class MethodWithPayload extends Method {
     protected HttpEntityEnclosingRequestBase requestExtended;
+    private Compression compression;
 
     protected MethodWithPayload(
             CloseableHttpClient client,
@@ -31,6 +43,36 @@ public abstract class MethodWithPayload extends Method {
         super.request = this.requestExtended;
     }
 
+    @Override
+    protected boolean isReplayable() {
+        HttpEntity entity = this.requestExtended.getEntity();
+        return entity == null || entity.isRepeatable();
+    }
+
+    /* === the body is compressed as it is sent, when the compression policy asks for it === */
+    @Override
+    protected HttpRequestBase prepared() {
+        HttpRequestBase prepared = super.prepared();
+        Compression policy = this.compression != null ? this.compression : Http.compression();
+
+        if (policy != null) {
+            policy.compress(this.requestExtended);
+        }
+        return prepared;
+    }
+
+    /**
+     * Compress the body of this request with the given policy, instead of the one of the default client
+     * (see {@link io.analog.alex.http.HttpClientConfig#compression(Compression)})
+     *
+     * @param compression the compression policy e.g. <code>new Compression().compressRequests(ContentCoding.GZIP, 4096)</code>
+     * @return the modified abstract http MethodWithPayload
+     */
+    public MethodWithPayload compression(Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
 
     /* ===========================
      * add payload with a string value of a content type
@@ -160,13 +202,27 @@ public abstract class MethodWithPayload extends Method {
     }
 
     /**
-     * Add a Object based body as a 'application/json'
+     * Add a Object based body as a 'application/json', serialized straight to the connection
+     * when the request is sent (see {@link io.analog.alex.http.model.JsonEntity})
      *
      * @param payload an Object understood as representing a JSON
      * @return the abstract MethodWithPayload
      */
     public MethodWithPayload addBodyAsJson(Object payload) {
-        addBody(GsonUtils.json(payload));
+        this.requestExtended.setEntity(new JsonEntity(payload));
+        return this;
+    }
+
+    /**
+     * Add a Object based body as a 'application/json', serialized straight to the connection
+     * when the request is sent (see {@link io.analog.alex.http.model.JsonEntity})
+     *
+     * @param payload    an Object understood as representing a JSON
+     * @param repeatable whether the body may be serialized again e.g. to retry the request
+     * @return the abstract MethodWithPayload
+     */
+    public MethodWithPayload addBodyAsJson(Object payload, boolean repeatable) {
+        this.requestExtended.setEntity(new JsonEntity(payload, repeatable));
         return this;
     }
 
@@ -217,14 +273,225 @@ public abstract class MethodWithPayload extends Method {
      */
     @Override
     public MethodWithPayload addParameter(String key, String value) {
-        try {
-            URI uri = new URIBuilder(this.request.getURI()).addParameter(key, value).build();
-            this.request.setURI(uri);
+        super.addParameter(key, value);
+        return this;
+    }
 
-        } catch (URISyntaxException e) {
-            throw new WrongMethodTypeException("URI parsing exited via a critical exception");
-        }
+    /**
+     * Add a URL parameter with several values to the URI i.e. <code>key=one&amp;key=two</code>
+     *
+     * @param key    the parameter name
+     * @param values the parameter values, each written as its String value
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload addParameters(String key, Iterable<?> values) {
+        super.addParameters(key, values);
+        return this;
+    }
 
+    /**
+     * Add several URL parameters to the URI; a value that is an {@link java.lang.Iterable}
+     * is added as a multi-valued parameter, any other value is written as its String value
+     *
+     * @param parameters the parameter names mapped to their values
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload addParameters(Map<String, ?> parameters) {
+        super.addParameters(parameters);
+        return this;
+    }
+
+    /**
+     * Set the non-blocking HttpClient manually
+     *
+     * @param asyncClient a pre-configured and started Apache Http Async Client to override the default one
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload setAsyncClient(CloseableHttpAsyncClient asyncClient) {
+        super.setAsyncClient(asyncClient);
+        return this;
+    }
+
+    /**
+     * Responses to methods with a payload are never cached; this only sets the cache for coherence in fluent usage
+     *
+     * @param cache the response cache
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload cache(ResponseCache cache) {
+        super.cache(cache);
+        return this;
+    }
+
+    /**
+     * Requests with a payload are never coalesced; this only sets the group for coherence in fluent usage
+     *
+     * @param singleFlight the single-flight group
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload singleFlight(SingleFlight singleFlight) {
+        super.singleFlight(singleFlight);
+        return this;
+    }
+
+    /**
+     * Set the socket timeout i.e. the longest period of inactivity between two data packets
+     *
+     * @param timeout the socket timeout
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload timeout(Duration timeout) {
+        super.timeout(timeout);
+        return this;
+    }
+
+    /**
+     * Set the timeout until a connection with the server is established
+     *
+     * @param timeout the connect timeout
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload connectTimeout(Duration timeout) {
+        super.connectTimeout(timeout);
+        return this;
+    }
+
+    /**
+     * Set the timeout to lease a connection from the pool
+     *
+     * @param timeout the lease timeout
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload leaseTimeout(Duration timeout) {
+        super.leaseTimeout(timeout);
+        return this;
+    }
+
+    /**
+     * Set an overall deadline, after which the request is aborted
+     *
+     * @param deadline the deadline
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload deadline(Duration deadline) {
+        super.deadline(deadline);
+        return this;
+    }
+
+    /**
+     * Retry this request according to the given policy
+     *
+     * @param retryPolicy the retry policy
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload retry(RetryPolicy retryPolicy) {
+        super.retry(retryPolicy);
+        return this;
+    }
+
+    /**
+     * Guard this request with the given circuit breakers
+     *
+     * @param circuitBreakers the circuit breakers
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload circuitBreakers(CircuitBreakers circuitBreakers) {
+        super.circuitBreakers(circuitBreakers);
+        return this;
+    }
+
+    /**
+     * Share a circuit with every request using the same key
+     *
+     * @param key the circuit key
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload circuitKey(String key) {
+        super.circuitKey(key);
+        return this;
+    }
+
+    /**
+     * Send this request over HTTP/2 with the given client
+     *
+     * @param http2Client the HTTP/2 client
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload http2(Http2Client http2Client) {
+        super.http2(http2Client);
+        return this;
+    }
+
+    /**
+     * Send this request with the given transport
+     *
+     * @param transport the transport
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload transport(Transport transport) {
+        super.transport(transport);
+        return this;
+    }
+
+    /**
+     * Limit this request with the given limiters
+     *
+     * @param limiters the limiters
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload limiters(Limiters limiters) {
+        super.limiters(limiters);
+        return this;
+    }
+
+    /**
+     * Record the timings, status and byte counts of this request in the given metrics
+     *
+     * @param metrics the request metrics
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload metrics(RequestMetrics metrics) {
+        super.metrics(metrics);
+        return this;
+    }
+
+    /**
+     * Tag the metrics of this request with a route template
+     *
+     * @param template the route template e.g. <code>/person/{id}</code>
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload route(String template) {
+        super.route(template);
+        return this;
+    }
+
+    /**
+     * Log a sample of the exchanges of this request with the given wire logging
+     *
+     * @param wireLogging the wire logging
+     * @return the modified abstract http MethodWithPayload
+     */
+    @Override
+    public MethodWithPayload wireLogging(WireLogging wireLogging) {
+        super.wireLogging(wireLogging);
         return this;
     }
 
@@ -22,6 +22,11 @@ public class Delete extends Method {
         return "DELETE";
     }
 
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
     /**
      * Create a new Delete request object with a URI object and a Apache Http Client
      *
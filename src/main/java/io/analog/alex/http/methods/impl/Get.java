@@ -1,10 +1,26 @@
 package io.analog.alex.http.methods.impl;
 
+import io.analog.alex.http.cache.ResponseCache;
+import io.analog.alex.http.cache.SingleFlight;
+import io.analog.alex.http.http2.Http2Client;
+import io.analog.alex.http.logging.WireLogging;
 import io.analog.alex.http.methods.Method;
+import io.analog.alex.http.metrics.RequestMetrics;
+import io.analog.alex.http.model.Response;
+import io.analog.alex.http.resilience.CircuitBreakers;
+import io.analog.alex.http.resilience.HedgePolicy;
+import io.analog.alex.http.resilience.Limiters;
+import io.analog.alex.http.resilience.RetryPolicy;
+import io.analog.alex.http.transport.Transport;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * Represents an http request with GET as a method
@@ -12,6 +28,8 @@ import java.net.URI;
  * @author Miguel Alexandre
  */
 public class Get extends Method {
+    private HedgePolicy hedgePolicy;
+
     private Get() {
         super(null);
     }
@@ -21,6 +39,11 @@ public class Get extends Method {
         return "GET";
     }
 
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
     /**
      * Create a new Get request object with a URI object and a Apache Http Client
      *
@@ -42,4 +65,316 @@ public class Get extends Method {
         super(client);
         this.request = new HttpGet(uri);
     }
+
+    /**
+     * Re-Set the HttpClient manually
+     *
+     * @param client a pre-configured Apache Http Client to override the default one
+     * @return the Get request
+     */
+    @Override
+    public Get setClient(CloseableHttpClient client) {
+        super.setClient(client);
+        return this;
+    }
+
+    /**
+     * Set the non-blocking HttpClient manually
+     *
+     * @param asyncClient a pre-configured and started Apache Http Async Client to override the default one
+     * @return the Get request
+     */
+    @Override
+    public Get setAsyncClient(CloseableHttpAsyncClient asyncClient) {
+        super.setAsyncClient(asyncClient);
+        return this;
+    }
+
+    /**
+     * Send this request over HTTP/2 with the given client, instead of the default one set in
+     * {@link io.analog.alex.http.Http} (if any), multiplexed with the other requests to the same host
+     *
+     * @param http2Client the HTTP/2 client e.g. <code>new Http2Config().build()</code>
+     * @return the Get request
+     */
+    @Override
+    public Get http2(Http2Client http2Client) {
+        super.http2(http2Client);
+        return this;
+    }
+
+    /**
+     * Send this request with the given transport, instead of the default one set in
+     * {@link io.analog.alex.http.Http} (if any) or the clients of this request
+     *
+     * @param transport the transport e.g. <code>Transports.jdk()</code>
+     * @return the Get request
+     */
+    @Override
+    public Get transport(Transport transport) {
+        super.transport(transport);
+        return this;
+    }
+
+    /**
+     * Serve this GET request through a client-side cache honouring the Cache-Control, ETag and
+     * Last-Modified headers, instead of the default one set in {@link io.analog.alex.http.Http} (if any)
+     *
+     * @param cache the response cache
+     * @return the Get request
+     */
+    @Override
+    public Get cache(ResponseCache cache) {
+        super.cache(cache);
+        return this;
+    }
+
+    /**
+     * Share the exchange with identical requests already in flight (same method, URI and key headers) instead of
+     * the default single-flight group set in {@link io.analog.alex.http.Http} (if any). Only idempotent requests
+     * without a payload are coalesced.
+     *
+     * @param singleFlight the single-flight group
+     * @return the Get request
+     */
+    @Override
+    public Get singleFlight(SingleFlight singleFlight) {
+        super.singleFlight(singleFlight);
+        return this;
+    }
+
+    /**
+     * Set the socket timeout i.e. the longest period of inactivity between two data packets
+     * (overrides the default set in {@link io.analog.alex.http.Http})
+     *
+     * @param timeout the socket timeout; zero means no timeout
+     * @return the Get request
+     */
+    @Override
+    public Get timeout(Duration timeout) {
+        super.timeout(timeout);
+        return this;
+    }
+
+    /**
+     * Set the timeout until a connection with the server is established
+     * (overrides the default set in {@link io.analog.alex.http.Http})
+     *
+     * @param timeout the connect timeout; zero means no timeout
+     * @return the Get request
+     */
+    @Override
+    public Get connectTimeout(Duration timeout) {
+        super.connectTimeout(timeout);
+        return this;
+    }
+
+    /**
+     * Set the timeout to lease a connection from the pool, when every connection to the route is in use
+     * (overrides the default set in {@link io.analog.alex.http.Http})
+     *
+     * @param timeout the lease timeout; zero means no timeout
+     * @return the Get request
+     */
+    @Override
+    public Get leaseTimeout(Duration timeout) {
+        super.leaseTimeout(timeout);
+        return this;
+    }
+
+    /**
+     * Set an overall deadline, covering everything from leasing a connection to reading the body: once it
+     * passes the request is aborted and fails with a {@link io.analog.alex.http.resilience.DeadlineExceededException}
+     * (overrides the default set in {@link io.analog.alex.http.Http})
+     *
+     * @param deadline the deadline
+     * @return the Get request
+     */
+    @Override
+    public Get deadline(Duration deadline) {
+        super.deadline(deadline);
+        return this;
+    }
+
+    /**
+     * Retry this request according to the given policy, instead of the default one set in
+     * {@link io.analog.alex.http.Http} (if any). Retries apply to the buffered execution paths:
+     * execute, executeToOptional, executeToObservable, executeAsync and executeNonBlocking, the last two
+     * waiting for the backoff on a timer instead of holding a thread. The deadline covers every attempt.
+     *
+     * @param retryPolicy the retry policy
+     * @return the Get request
+     */
+    @Override
+    public Get retry(RetryPolicy retryPolicy) {
+        super.retry(retryPolicy);
+        return this;
+    }
+
+    /**
+     * Guard this request with the given circuit breakers, instead of the default ones set in
+     * {@link io.analog.alex.http.Http} (if any): while the circuit of its destination is open, the request
+     * fails fast with a {@link io.analog.alex.http.resilience.CircuitOpenException}
+     *
+     * @param circuitBreakers the circuit breakers
+     * @return the Get request
+     */
+    @Override
+    public Get circuitBreakers(CircuitBreakers circuitBreakers) {
+        super.circuitBreakers(circuitBreakers);
+        return this;
+    }
+
+    /**
+     * Share a circuit with every request using the same key, instead of the one of its host
+     *
+     * @param key the circuit key e.g. a route or a service name
+     * @return the Get request
+     */
+    @Override
+    public Get circuitKey(String key) {
+        super.circuitKey(key);
+        return this;
+    }
+
+    /**
+     * Limit this request with the given limiters, instead of the default ones set in
+     * {@link io.analog.alex.http.Http} (if any): the request waits for a permit and a slot of its host, and
+     * fails with a {@link io.analog.alex.http.resilience.LimitExceededException} if none frees up in time
+     *
+     * @param limiters the limiters
+     * @return the Get request
+     */
+    @Override
+    public Get limiters(Limiters limiters) {
+        super.limiters(limiters);
+        return this;
+    }
+
+    /**
+     * Record the timings, status and byte counts of this request in the given metrics, instead of the
+     * default ones set in {@link io.analog.alex.http.Http} (if any)
+     *
+     * @param metrics the request metrics
+     * @return the Get request
+     */
+    @Override
+    public Get metrics(RequestMetrics metrics) {
+        super.metrics(metrics);
+        return this;
+    }
+
+    /**
+     * Tag the metrics of this request with a route template, grouping requests to the same resource
+     *
+     * @param template the route template e.g. <code>/person/{id}</code>
+     * @return the Get request
+     */
+    @Override
+    public Get route(String template) {
+        super.route(template);
+        return this;
+    }
+
+    /**
+     * Log a sample of the exchanges of this request with the given wire logging, instead of the default one
+     * set in {@link io.analog.alex.http.Http} (if any); the route of the request picks its sampling rate
+     *
+     * @param wireLogging the wire logging e.g. <code>new WireLogging().sample(0.01)</code>
+     * @return the Get request
+     */
+    @Override
+    public Get wireLogging(WireLogging wireLogging) {
+        super.wireLogging(wireLogging);
+        return this;
+    }
+
+    /**
+     * Add a URL parameter to the URI. Parameters are collected and encoded into the URI
+     * only once, when the request is executed.
+     *
+     * @param key   the parameter name
+     * @param value the parameter value
+     * @return the Get request
+     */
+    @Override
+    public Get addParameter(String key, String value) {
+        super.addParameter(key, value);
+        return this;
+    }
+
+    /**
+     * Add a URL parameter with several values to the URI i.e. <code>key=one&amp;key=two</code>
+     *
+     * @param key    the parameter name
+     * @param values the parameter values, each written as its String value
+     * @return the Get request
+     */
+    @Override
+    public Get addParameters(String key, Iterable<?> values) {
+        super.addParameters(key, values);
+        return this;
+    }
+
+    /**
+     * Add several URL parameters to the URI; a value that is an {@link java.lang.Iterable}
+     * is added as a multi-valued parameter, any other value is written as its String value
+     *
+     * @param parameters the parameter names mapped to their values
+     * @return the Get request
+     */
+    @Override
+    public Get addParameters(Map<String, ?> parameters) {
+        super.addParameters(parameters);
+        return this;
+    }
+
+    /**
+     * Add an HTTP Header on a  key | value basis
+     *
+     * @param key   the header key
+     * @param value the header value
+     * @return the Get request
+     */
+    @Override
+    public Get addHeader(String key, String value) {
+        super.addHeader(key, value);
+        return this;
+    }
+
+    /**
+     * Hedge this request: if no response arrived after the delay of the policy, a duplicate is sent on
+     * another thread and the first response wins, the other request being aborted. Applies to the
+     * buffered execution paths: execute, executeToOptional, executeToObservable and executeAsync.
+     *
+     * @param hedgePolicy the hedging policy, to be shared by the requests whose latencies it observes
+     * @return the Get request
+     */
+    public Get hedge(HedgePolicy hedgePolicy) {
+        this.hedgePolicy = hedgePolicy;
+        return this;
+    }
+
+    @Override
+    protected Response send() throws IOException {
+        if (hedgePolicy == null) {
+            return super.send();
+        }
+
+        HttpRequestBase primary = prepared();
+        Response response = hedgePolicy.execute(primary, () -> duplicate(primary), this::send);
+
+        /* === the duplicate won and aborted the primary request: reset it so it can be sent again === */
+        if (primary.isAborted()) {
+            primary.reset();
+        }
+        return response;
+    }
+
+    private static HttpRequestBase duplicate(HttpRequestBase primary) {
+        HttpGet copy = new HttpGet(primary.getURI());
+        copy.setHeaders(primary.getAllHeaders());
+        copy.setConfig(primary.getConfig());
+        return copy;
+    }
 }
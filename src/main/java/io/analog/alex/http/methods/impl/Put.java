@@ -22,6 +22,11 @@ public class Put extends MethodWithPayload {
         return "PUT";
     }
 
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
     /**
      * Create a new Put request object with a URI object and a Apache Http Client
      *
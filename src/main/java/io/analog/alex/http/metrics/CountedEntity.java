@@ -0,0 +1,79 @@
+package io.analog.alex.http.metrics;
+
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A response entity adding the bytes received over its connection to a {@link RequestSample} once its body is
+ * read to the end or closed, i.e. on the thread reading it and before the connection is released to the pool,
+ * where another exchange could lease it
+ *
+ * @author Miguel Alexandre
+ */
+final class CountedEntity extends HttpEntityWrapper {
+    private final HttpConnectionMetrics metrics;
+    private final RequestSample sample;
+    private final long receivedBefore;
+    private boolean counted;
+
+    CountedEntity(HttpEntity entity, HttpConnectionMetrics metrics, RequestSample sample, long receivedBefore) {
+        super(entity);
+        this.metrics = metrics;
+        this.sample = sample;
+        this.receivedBefore = receivedBefore;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new FilterInputStream(super.getContent()) {
+            @Override
+            public int read() throws IOException {
+                int read = super.read();
+                if (read == -1) {
+                    count();
+                }
+                return read;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = super.read(bytes, offset, length);
+                if (read == -1) {
+                    count();
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    count();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try {
+            super.writeTo(outStream);
+        } finally {
+            count();
+        }
+    }
+
+    private void count() {
+        if (!counted) {
+            counted = true;
+            sample.addBytes(0, metrics.getReceivedBytesCount() - receivedBefore);
+        }
+    }
+}
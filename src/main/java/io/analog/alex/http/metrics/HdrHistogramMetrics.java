@@ -0,0 +1,166 @@
+package io.analog.alex.http.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-memory {@link RequestMetrics} keeping, per method and route template, an HDR histogram of the
+ * nanoseconds spent in each {@link Phase} along with request, failure, status and byte counters
+ *
+ * @author Miguel Alexandre
+ */
+public class HdrHistogramMetrics implements RequestMetrics {
+    private final ConcurrentMap<String, ConcurrentMap<String, RouteMetrics>> methods = new ConcurrentHashMap<>();
+    private final int significantDigits;
+
+    /**
+     * Create histograms with 3 significant value digits (i.e. a 0.1% precision)
+     */
+    public HdrHistogramMetrics() {
+        this(3);
+    }
+
+    /**
+     * Create histograms with the given precision
+     *
+     * @param significantDigits the number of significant value digits kept, between 0 and 5
+     */
+    public HdrHistogramMetrics(int significantDigits) {
+        this.significantDigits = significantDigits;
+    }
+
+    @Override
+    public void record(RequestSample sample) {
+        ConcurrentMap<String, RouteMetrics> routes = methods.get(sample.getMethod());
+        if (routes == null) {
+            routes = methods.computeIfAbsent(sample.getMethod(), method -> new ConcurrentHashMap<>());
+        }
+
+        RouteMetrics metrics = routes.get(sample.getRoute());
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(sample.getRoute(), route -> new RouteMetrics(significantDigits));
+        }
+
+        metrics.record(sample);
+    }
+
+    /**
+     * Get the metrics recorded for a method and route template
+     *
+     * @param method the request method e.g. GET
+     * @param route  the route template, or "none" for untagged requests
+     * @return the metrics, if any request was recorded for them
+     */
+    public Optional<RouteMetrics> get(String method, String route) {
+        Map<String, RouteMetrics> routes = methods.get(method);
+        return Optional.ofNullable(routes == null ? null : routes.get(route));
+    }
+
+    /**
+     * Discard everything recorded so far
+     */
+    public void reset() {
+        methods.clear();
+    }
+
+    /**
+     * The metrics of a single method and route template
+     */
+    public static class RouteMetrics {
+        private final Map<Phase, Histogram> histograms = new EnumMap<>(Phase.class);
+        private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+
+        RouteMetrics(int significantDigits) {
+            for (Phase phase : Phase.values()) {
+                histograms.put(phase, new ConcurrentHistogram(significantDigits));
+            }
+        }
+
+        void record(RequestSample sample) {
+            requests.increment();
+            bytesSent.add(sample.getBytesSent());
+            bytesReceived.add(sample.getBytesReceived());
+
+            if (sample.isFailed()) {
+                failures.increment();
+            } else {
+                statuses.computeIfAbsent(sample.getStatusCode(), status -> new LongAdder()).increment();
+            }
+
+            histograms.forEach((phase, histogram) -> {
+                long nanos = sample.getNanos(phase);
+                if (nanos >= 0) {
+                    histogram.recordValue(nanos);
+                }
+            });
+        }
+
+        /**
+         * Get a copy of the histogram of a phase, in nanoseconds
+         *
+         * @param phase the phase
+         * @return a {@link org.HdrHistogram.Histogram} of the time spent in that phase
+         */
+        public Histogram getHistogram(Phase phase) {
+            return histograms.get(phase).copy();
+        }
+
+        /**
+         * Get the number of requests recorded
+         *
+         * @return the number of requests, failed or not
+         */
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        /**
+         * Get the number of requests that failed with an IOException
+         *
+         * @return the number of failed requests
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Get the number of responses received with a status code
+         *
+         * @param statusCode the status code e.g. 200
+         * @return the number of responses with that status code
+         */
+        public long getStatusCount(int statusCode) {
+            LongAdder count = statuses.get(statusCode);
+            return count == null ? 0 : count.sum();
+        }
+
+        /**
+         * Get the total number of bytes sent
+         *
+         * @return the bytes sent across all the requests
+         */
+        public long getBytesSent() {
+            return bytesSent.sum();
+        }
+
+        /**
+         * Get the total number of bytes received
+         *
+         * @return the bytes received across all the requests
+         */
+        public long getBytesReceived() {
+            return bytesReceived.sum();
+        }
+    }
+}
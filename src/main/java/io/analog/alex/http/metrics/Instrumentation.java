@@ -0,0 +1,41 @@
+package io.analog.alex.http.metrics;
+
+/**
+ * Binds the {@link RequestSample} of the exchange running on the current thread, so the connection manager
+ * and request executor built by {@link io.analog.alex.http.HttpClientConfig} can time the phases they own.
+ * Nothing is bound when metrics are disabled, leaving those hooks a single thread-local lookup.
+ *
+ * @author Miguel Alexandre
+ */
+public final class Instrumentation {
+    private static final ThreadLocal<RequestSample> CURRENT = new ThreadLocal<>();
+
+    private Instrumentation() {
+        // static access only
+    }
+
+    /**
+     * Get the sample of the exchange running on this thread
+     *
+     * @return the sample, or null if this exchange is not being measured
+     */
+    public static RequestSample current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a sample to this thread for the duration of a blocking exchange
+     *
+     * @param sample the sample to bind
+     */
+    public static void attach(RequestSample sample) {
+        CURRENT.set(sample);
+    }
+
+    /**
+     * Unbind the sample of this thread
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,112 @@
+package io.analog.alex.http.metrics;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pooling connection manager timing the {@link Phase#LEASE}, {@link Phase#CONNECT} and {@link Phase#TLS}
+ * phases of the exchange measured on the current thread. It behaves exactly like its parent otherwise.
+ *
+ * @author Miguel Alexandre
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    /**
+     * Create a manager whose pooled connections live for the given time, regardless of their keep-alive
+     *
+     * @param timeToLive the time-to-live in milliseconds; zero or negative means connections live indefinitely
+     */
+    public InstrumentedConnectionManager(long timeToLive) {
+        super(RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", new TimedSslSocketFactory())
+                        .build(),
+                null, null, null, timeToLive > 0 ? timeToLive : -1, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        RequestSample sample = Instrumentation.current();
+
+        if (sample == null) {
+            return request;
+        }
+
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit unit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.get(timeout, unit);
+                } finally {
+                    sample.record(Phase.LEASE, System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout, HttpContext context)
+            throws IOException {
+
+        RequestSample sample = Instrumentation.current();
+        if (sample == null) {
+            super.connect(managedConn, route, connectTimeout, context);
+            return;
+        }
+
+        long tls = Math.max(sample.getNanos(Phase.TLS), 0);
+        long start = System.nanoTime();
+        try {
+            super.connect(managedConn, route, connectTimeout, context);
+        } finally {
+            /* === the handshake of a direct https connection happens within connect === */
+            long handshake = Math.max(sample.getNanos(Phase.TLS), 0) - tls;
+            sample.record(Phase.CONNECT, System.nanoTime() - start - handshake);
+        }
+    }
+
+    /* === times the handshake, which the default factory runs when layering TLS over the plain socket === */
+    private static class TimedSslSocketFactory extends SSLConnectionSocketFactory {
+
+        TimedSslSocketFactory() {
+            super(SSLContexts.createDefault(), getDefaultHostnameVerifier());
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            RequestSample sample = Instrumentation.current();
+            if (sample == null) {
+                return super.createLayeredSocket(socket, target, port, context);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return super.createLayeredSocket(socket, target, port, context);
+            } finally {
+                sample.record(Phase.TLS, System.nanoTime() - start);
+            }
+        }
+    }
+}
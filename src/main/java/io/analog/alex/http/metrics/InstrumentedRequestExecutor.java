@@ -0,0 +1,50 @@
+package io.analog.alex.http.metrics;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+
+/**
+ * A request executor timing the {@link Phase#TIME_TO_FIRST_BYTE} of the exchange measured on the current thread,
+ * and counting the bytes sent and received over the connection it is sent over
+ *
+ * @author Miguel Alexandre
+ */
+public class InstrumentedRequestExecutor extends HttpRequestExecutor {
+
+    @Override
+    public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+            throws IOException, HttpException {
+
+        RequestSample sample = Instrumentation.current();
+        if (sample == null) {
+            return super.execute(request, conn, context);
+        }
+
+        HttpConnectionMetrics metrics = conn.getMetrics();
+        long sent = metrics.getSentBytesCount();
+        long received = metrics.getReceivedBytesCount();
+        long start = System.nanoTime();
+
+        HttpResponse response = super.execute(request, conn, context);
+
+        sample.record(Phase.TIME_TO_FIRST_BYTE, System.nanoTime() - start);
+
+        /* === the connection goes back to the pool once the body is read: the bytes received are counted just before === */
+        HttpEntity entity = response.getEntity();
+        if (entity == null || !entity.isStreaming()) {
+            sample.addBytes(metrics.getSentBytesCount() - sent, metrics.getReceivedBytesCount() - received);
+        } else {
+            sample.addBytes(metrics.getSentBytesCount() - sent, 0);
+            response.setEntity(new CountedEntity(entity, metrics, sample, received));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+package io.analog.alex.http.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link RequestMetrics} publishing to a Micrometer {@link io.micrometer.core.instrument.MeterRegistry}:
+ * a <code>http.client.requests</code> timer for the whole exchange, a <code>http.client.requests.phase</code>
+ * timer per {@link Phase} and <code>http.client.requests.bytes.sent|received</code> summaries, all tagged with
+ * the method, route template (as <code>uri</code>) and status (<code>IO_ERROR</code> on failure).
+ * Micrometer is an optional dependency, only needed when this class is used.
+ *
+ * @author Miguel Alexandre
+ */
+public class MicrometerMetrics implements RequestMetrics {
+    private static final Phase[] PHASES = Phase.values();
+
+    private final MeterRegistry registry;
+
+    /**
+     * Publish the metrics to the given registry
+     *
+     * @param registry the Micrometer registry
+     */
+    public MicrometerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void record(RequestSample sample) {
+        Tags tags = Tags.of(
+                "method", sample.getMethod(),
+                "uri", sample.getRoute(),
+                "status", sample.isFailed() ? "IO_ERROR" : String.valueOf(sample.getStatusCode()));
+
+        Timer.builder("http.client.requests").tags(tags).register(registry)
+                .record(sample.getNanos(Phase.TOTAL), TimeUnit.NANOSECONDS);
+
+        for (Phase phase : PHASES) {
+            long nanos = sample.getNanos(phase);
+            if (phase != Phase.TOTAL && nanos >= 0) {
+                Timer.builder("http.client.requests.phase").tags(tags).tag("phase", phase.name().toLowerCase())
+                        .register(registry)
+                        .record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        DistributionSummary.builder("http.client.requests.bytes.sent").baseUnit("bytes").tags(tags).register(registry)
+                .record(sample.getBytesSent());
+        DistributionSummary.builder("http.client.requests.bytes.received").baseUnit("bytes").tags(tags).register(registry)
+                .record(sample.getBytesReceived());
+    }
+}
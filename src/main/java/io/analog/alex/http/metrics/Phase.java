@@ -0,0 +1,23 @@
+package io.analog.alex.http.metrics;
+
+/**
+ * The phases of an HTTP exchange timed by a {@link RequestSample}
+ *
+ * @author Miguel Alexandre
+ */
+public enum Phase {
+    /** waiting for a connection to be leased from the pool */
+    LEASE,
+    /** opening the TCP connection, when no pooled connection could be reused */
+    CONNECT,
+    /** the TLS handshake of a new https connection */
+    TLS,
+    /** from the start of sending the request until the response head is received */
+    TIME_TO_FIRST_BYTE,
+    /** reading the response body */
+    BODY_READ,
+    /** decoding the JSON body into objects, when done by the client e.g. in executeAs */
+    DESERIALIZATION,
+    /** the whole exchange, as seen by the caller */
+    TOTAL
+}
@@ -0,0 +1,19 @@
+package io.analog.alex.http.metrics;
+
+/**
+ * The instrumentation SPI: receives one {@link RequestSample} per completed (or failed) exchange. Set it
+ * globally in {@link io.analog.alex.http.Http} or on a single request; when none is set, no sample is created.
+ * Implementations are called on the thread completing the exchange and must be thread-safe.
+ *
+ * @author Miguel Alexandre
+ */
+@FunctionalInterface
+public interface RequestMetrics {
+
+    /**
+     * Record a completed exchange
+     *
+     * @param sample the timings, status and byte counts of the exchange
+     */
+    void record(RequestSample sample);
+}
@@ -0,0 +1,185 @@
+package io.analog.alex.http.metrics;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The measurements of a single exchange: the time spent in each {@link Phase}, the status code and the
+ * bytes sent and received over the connection. Samples are only created when a {@link RequestMetrics}
+ * is set, and are handed to it once the exchange is over.
+ *
+ * @author Miguel Alexandre
+ */
+public class RequestSample {
+    private static final Phase[] PHASES = Phase.values();
+
+    private final RequestMetrics recorder;
+    private final String method;
+    private final String route;
+    private final long startedAt = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length];
+
+    private int statusCode = -1;
+    private IOException failure;
+    private long bytesSent;
+    private long bytesReceived;
+    private boolean finished;
+
+    /**
+     * Start measuring an exchange
+     *
+     * @param recorder the metrics the sample is handed to when finished
+     * @param method   the request method e.g. GET
+     * @param route    the route template e.g. <code>/person/{id}</code>
+     */
+    public RequestSample(RequestMetrics recorder, String method, String route) {
+        this.recorder = recorder;
+        this.method = method;
+        this.route = route;
+        Arrays.fill(nanos, -1);
+    }
+
+    /**
+     * Add time spent in a phase; a phase may happen more than once e.g. across redirects
+     *
+     * @param phase the phase
+     * @param time  the time spent, in nanoseconds
+     */
+    public void record(Phase phase, long time) {
+        int i = phase.ordinal();
+        nanos[i] = Math.max(nanos[i], 0) + time;
+    }
+
+    /**
+     * Set the status code of the (final) response
+     *
+     * @param statusCode the status code
+     */
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Mark the exchange as failed
+     *
+     * @param failure the cause of the failure
+     */
+    public void setFailure(IOException failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * Add the bytes exchanged over a connection for this sample; an exchange may use more than one e.g. across
+     * redirects. Bytes counted once the sample is finished are left out.
+     *
+     * @param sent     the bytes written to the connection
+     * @param received the bytes read from the connection, counted before it is released to the pool
+     */
+    public void addBytes(long sent, long received) {
+        if (!finished) {
+            this.bytesSent += sent;
+            this.bytesReceived += received;
+        }
+    }
+
+    /**
+     * End the measurement and hand the sample to its {@link RequestMetrics}
+     */
+    public void finish() {
+        finished = true;
+        nanos[Phase.TOTAL.ordinal()] = System.nanoTime() - startedAt;
+        recorder.record(this);
+    }
+
+    /**
+     * Get the request method
+     *
+     * @return the method e.g. GET
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the route template the request was tagged with
+     *
+     * @return the route template, or "none" if the request was not tagged
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Get the time spent in a phase
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds, or -1 if the phase did not happen e.g. CONNECT on a reused connection
+     */
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Get the status code of the response
+     *
+     * @return the status code, or -1 if no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Did the exchange fail with an IOException?
+     *
+     * @return a boolean answering the question
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Get the cause of the failure
+     *
+     * @return the IOException, or null if the exchange did not fail
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Get the number of bytes written to the connection (request line, headers and body)
+     *
+     * @return the bytes sent, or 0 if unknown
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Get the number of bytes read from the connection (status line, headers and body)
+     *
+     * @return the bytes received, or 0 if unknown
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RequestSample [").append(method).append(' ').append(route)
+                .append(", status=").append(statusCode);
+
+        for (Phase phase : PHASES) {
+            if (nanos[phase.ordinal()] >= 0) {
+                builder.append(", ").append(phase).append('=').append(nanos[phase.ordinal()] / 1000).append("us");
+            }
+        }
+
+        return builder.append(", sent=").append(bytesSent).append(", received=").append(bytesReceived).append(']').toString();
+    }
+}
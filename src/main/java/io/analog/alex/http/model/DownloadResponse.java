@@ -0,0 +1,75 @@
+package io.analog.alex.http.model;
+
+import org.apache.http.Header;
+
+/**
+ * The DownloadResponse object represents the outcome of a body written straight to a file or channel:
+ * it holds the status code, the response headers and the number of bytes written, but not the body itself.
+ *
+ * @author Miguel Alexandre
+ */
+public class DownloadResponse {
+    private final Integer statusCode;
+    private final Header[] headers;
+    private final long bytes;
+
+    /**
+     * Constructs an object from a streamed response and the number of bytes written from it
+     *
+     * @param response the {@link io.analog.alex.http.model.StreamingResponse} the body was read from
+     * @param bytes    the number of bytes written
+     */
+    public DownloadResponse(StreamingResponse response, long bytes) {
+        this.statusCode = response.getStatusCode();
+        this.headers = response.getHeaders();
+        this.bytes = bytes;
+    }
+
+    /**
+     * Get the status code of the response as a java.lang.Integer
+     *
+     * @return the status code as an Integer
+     */
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get all the response headers
+     *
+     * @return an array of {@link org.apache.http.Header}
+     */
+    public Header[] getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Get the number of body bytes written by this download (for a resumed download,
+     * only the bytes appended by it)
+     *
+     * @return the number of bytes written
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Was the return code in the 200-299 range?
+     * (Semantically understood as a successful response)
+     *
+     * @return a boolean answering the question
+     */
+    public Boolean isSuccessful() {
+        return this.statusCode > 199 && this.statusCode < 299;
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "DownloadResponse [status=" + statusCode + ", bytes=" + bytes + "]";
+    }
+}
@@ -0,0 +1,97 @@
+package io.analog.alex.http.model;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import io.analog.alex.utils.GsonUtils;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The JsonEntity class is a request entity that serializes an object as JSON lazily, straight to the
+ * connection's output stream when the request is written, instead of first building the full String
+ * and its byte copy. Its length is unknown, so it is sent with chunked transfer encoding.
+ * It is only repeatable (i.e. re-sent on a retry) when explicitly requested.
+ *
+ * @author Miguel Alexandre
+ */
+public class JsonEntity extends AbstractHttpEntity {
+    private final Object payload;
+    private final Gson gson;
+    private final boolean repeatable;
+
+    /**
+     * Create a non-repeatable JSON entity serialized with the shared Gson of {@link io.analog.alex.utils.GsonUtils}
+     *
+     * @param payload the object to serialize
+     */
+    public JsonEntity(Object payload) {
+        this(payload, false);
+    }
+
+    /**
+     * Create a JSON entity serialized with the shared Gson of {@link io.analog.alex.utils.GsonUtils}
+     *
+     * @param payload    the object to serialize
+     * @param repeatable whether the entity may be written more than once
+     */
+    public JsonEntity(Object payload, boolean repeatable) {
+        this.payload = payload;
+        this.gson = GsonUtils.gson();
+        this.repeatable = repeatable;
+        setContentType(ContentType.APPLICATION_JSON.toString());
+        setChunked(true);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return repeatable;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * Get the serialized payload as a stream; unlike {@link #writeTo(OutputStream)} this buffers
+     * the whole JSON in memory, and is only meant for interoperability
+     *
+     * @return an {@link java.io.InputStream} over the serialized payload
+     * @throws IOException if serialization fails
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        writeTo(buffer);
+        return new ByteArrayInputStream(buffer.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outStream, StandardCharsets.UTF_8);
+        try {
+            gson.toJson(payload, writer);
+        } catch (JsonIOException e) {
+            /* === Gson wraps the failures of the writer, unwrap them so they stay an IOException === */
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e);
+        }
+        writer.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
@@ -1,122 +1,228 @@
 package io.analog.alex.http.model;
 
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
-import org.apache.commons.lang3.StringUtils;
+import io.analog.alex.utils.GsonUtils;
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
 import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.function.Function;
 
 /**
  * The Response object represents a HttpResponse, holding a status code, the
- * content (in a String format), and an array of response headers. This class offers several
+ * content (as the raw bytes of the body), and an array of response headers. This class offers several
  * built-in functions to manipulate the response content, by parsing it into a POJO or
- * a GSON JsonObject
+ * a GSON JsonObject. The body is only decoded into a String on demand, with the charset of its
+ * Content-Type (UTF-8 by default), and its JsonElement tree is memoized.
  *
  * @author Miguel Alexandre
  */
 public abstract class Response {
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final byte[] EMPTY = new byte[0];
+    private static final int PREVIEW_BYTES = 1024;
 
-    private final String content;
-    private final Integer statusCode;
+    private final byte[] body;
+    private final Charset charset;
+    private final int statusCode;
     private final Header[] headers;
 
+    /* === built or parsed on first use, as most responses are only read once === */
+    private volatile Map<String, String> headerIndex;
+    private volatile JsonElement json;
+
     /**
      * Constructs an object copying an {@link org.apache.http.HttpResponse}
      *
      * @param httpResponse an http response from Apache Client
-     * @throws IOException if it cannot parse the response to a String
+     * @throws IOException if it cannot read the body of the response
      */
     public Response(HttpResponse httpResponse) throws IOException {
         this.headers = httpResponse.getAllHeaders();
         this.statusCode = httpResponse.getStatusLine().getStatusCode();
 
-        if (httpResponse.getEntity() != null) {
-            this.content = EntityUtils.toString(httpResponse.getEntity(), StandardCharsets.UTF_8);
-        } else {
-            this.content = StringUtils.EMPTY;
-        }
+        HttpEntity entity = httpResponse.getEntity();
+        byte[] bytes = entity == null ? null : EntityUtils.toByteArray(entity);
+        this.body = bytes == null || bytes.length == 0 ? EMPTY : bytes;
+        this.charset = charset(entity);
+    }
 
-        LOGGER.debug(this::toString);
+    /* === the charset of the Content-Type, or UTF-8 (the encoding of JSON) when it has none or an unknown one === */
+    private static Charset charset(HttpEntity entity) {
+        try {
+            ContentType type = entity == null ? null : ContentType.get(entity);
+            return type != null && type.getCharset() != null ? type.getCharset() : StandardCharsets.UTF_8;
+
+        } catch (RuntimeException e) {
+            return StandardCharsets.UTF_8;
+        }
     }
 
     /**
-     * Get the response body as a java.lang.String
+     * Get the response body as a java.lang.String, decoded with the charset of the response. The String is
+     * not retained by the response, so it is decoded again on every call.
      *
      * @return the content in String format
      */
     public String getContent() {
-        return content;
+        if (body.length == 0) {
+            return "";
+        }
+
+        /* === ASCII is a subset of the usual charsets, and decoding it is a plain copy === */
+        if (isAsciiCompatible(charset) && isAscii(body)) {
+            return new String(body, StandardCharsets.ISO_8859_1);
+        }
+        return new String(body, charset);
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        return charset == StandardCharsets.UTF_8 || charset == StandardCharsets.ISO_8859_1 || charset == StandardCharsets.US_ASCII;
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Get an header by key
+     * Get the raw body of the response, as received; the array is shared, so it must not be modified
+     *
+     * @return the body, empty if the response has none
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Get the charset the body is decoded with
+     *
+     * @return the charset of the Content-Type of the response, UTF-8 if it has none
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Get an header by key, ignoring case as header names are case-insensitive
      *
      * @param key the header name
      * @return a String representation of the value of the header identified by the given key.
      * If no such header exists, it is returned a "No Header with key ${key}"
      */
     public String getHeader(String key) {
-        for (Header header : headers) {
-            if (header.getName().equals(key)) {
-                return header.getValue();
+        String value = headers().get(key);
+        return value != null ? value : "No Header with key " + key;
+    }
+
+    /**
+     * Find an header by key, ignoring case as header names are case-insensitive
+     *
+     * @param key the header name
+     * @return the value of the first header identified by the given key, if any
+     */
+    public Optional<String> findHeader(String key) {
+        return Optional.ofNullable(headers().get(key));
+    }
+
+    /**
+     * Get every header of the response
+     *
+     * @return the headers, in the order they were received
+     */
+    public Header[] getHeaders() {
+        return headers.clone();
+    }
+
+    /* === the first value of each header, indexed case-insensitively on the first lookup === */
+    private Map<String, String> headers() {
+        Map<String, String> index = this.headerIndex;
+        if (index == null) {
+            index = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Header header : headers) {
+                index.putIfAbsent(header.getName(), header.getValue());
             }
+            this.headerIndex = index;
         }
-
-        return String.format("No Header with key %s", key);
+        return index;
     }
 
     /**
-     * Parse to a com.google.gson.JsonElement
+     * Parse to a com.google.gson.JsonElement. The element is parsed once and the same one returned on
+     * every call, so it should not be modified.
      *
      * @return a {@link com.google.gson.JsonElement} object for further JSON manipulation
      */
     public JsonElement parseAsGson() {
-        return new JsonParser().parse(this.content);
+        JsonElement element = this.json;
+        if (element == null) {
+            element = new JsonParser().parse(reader());
+            this.json = element;
+        }
+        return element;
     }
 
     /**
-     * Parse response into a generic Java class. The parsing is done via
-     * the Gson library which maps JSON members into a POJO attribute with
-     * the same name.
+     * Parse response into a generic Java class. The parsing is done in a single pass via
+     * the shared Gson instance of {@link io.analog.alex.utils.GsonUtils}, which maps JSON members
+     * into a POJO attribute with the same name. Each call returns a new instance, which the caller may modify.
      *
      * @param <T>     a type parameter
      * @param classOf the class wished to be parsed to
      * @return an instance of the given T class, if parsing is successfull
      * @throws com.google.gson.JsonSyntaxException - if parsing fails
      */
+    @SuppressWarnings("unchecked")
     public <T> T parseAs(Class<T> classOf) {
-        JsonElement element = new JsonParser().parse(this.content);
-        return new GsonBuilder().create().fromJson(element, classOf);
+        return (T) parse(classOf);
     }
 
     /**
-     * Parse response into a Java collection of a generic class. The parsing is done via
-     * the Gson library which maps JSON members into a POJO attribute with
-     * the same name.
+     * Parse response into a Java collection of a generic class. The parsing is done in a single pass via
+     * the shared Gson instance of {@link io.analog.alex.utils.GsonUtils}, which maps JSON members
+     * into a POJO attribute with the same name.
      *
      * @param <T>     a type parameter
      * @param classOf the type that will parametrized the collection that the JSON will be parsed to
-     * @return a collection of generic T class
+     * @return a new collection of generic T class
      * @throws com.google.gson.JsonSyntaxException - if parsing fails
      */
+    @SuppressWarnings("unchecked")
     public <T> Collection<T> parseAsCollectionOf(Class<T> classOf) {
-        JsonArray elements = new JsonParser().parse(this.content).getAsJsonArray();
-        Type listType = TypeToken.getParameterized(ArrayList.class, classOf).getType();
-        return new GsonBuilder().create().fromJson(elements, listType);
+        return (Collection<T>) parse(TypeToken.getParameterized(ArrayList.class, classOf).getType());
+    }
+
+    /* === a response may be shared between callers, so every call binds a fresh object: from the memoized
+           tree when there is one, otherwise straight from the bytes without an intermediate String === */
+    private Object parse(Type type) {
+        JsonElement element = this.json;
+        return element != null ? GsonUtils.gson().fromJson(element, type) : GsonUtils.gson().fromJson(reader(), type);
+    }
+
+    private Reader reader() {
+        return new InputStreamReader(new ByteArrayInputStream(body), charset);
     }
 
     /**
@@ -133,7 +239,8 @@ public abstract class Response {
      */
 
     /**
-     * Log the response by calling a LOGGER and {@link #toString()}
+     * Log the response by calling a LOGGER and {@link #toString()}, which truncates the body; to log a sample
+     * of the exchanges off the request thread, see {@link io.analog.alex.http.logging.WireLogging}
      *
      * @return the reference to this class instance
      */
@@ -209,12 +316,17 @@ public abstract class Response {
     }
 
     /**
-     * a String representation of the object instance
+     * a String representation of the object instance, with at most the first KiB of the body
      *
      * @see java.lang.Object#toString()
      */
     @Override
     public String toString() {
-        return "Response [status=" + statusCode + ", content=" + content + "]";
+        if (body.length <= PREVIEW_BYTES) {
+            return "Response [status=" + statusCode + ", content=" + getContent() + "]";
+        }
+
+        return "Response [status=" + statusCode + ", content=" + new String(body, 0, PREVIEW_BYTES, charset)
+                + "... (" + (body.length - PREVIEW_BYTES) + " more bytes)]";
     }
 }
@@ -0,0 +1,132 @@
+package io.analog.alex.http.model;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The StreamingResponse object represents a HttpResponse whose body has not been read yet. It is only
+ * valid while the connection is leased i.e. inside the handler given to
+ * {@link io.analog.alex.http.methods.Method#executeStreaming(java.util.function.Function)}; the body is
+ * never buffered in memory.
+ *
+ * @author Miguel Alexandre
+ */
+public class StreamingResponse {
+    private final Integer statusCode;
+    private final String reasonPhrase;
+    private final Header[] headers;
+    private final HttpEntity entity;
+
+    /**
+     * Constructs an object wrapping an {@link org.apache.http.HttpResponse} without reading its entity
+     *
+     * @param httpResponse an http response from Apache Client
+     */
+    public StreamingResponse(HttpResponse httpResponse) {
+        this.statusCode = httpResponse.getStatusLine().getStatusCode();
+        this.reasonPhrase = httpResponse.getStatusLine().getReasonPhrase();
+        this.headers = httpResponse.getAllHeaders();
+        this.entity = httpResponse.getEntity();
+    }
+
+    /**
+     * Get the status code of the response as a java.lang.Integer
+     *
+     * @return the status code as an Integer
+     */
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get the reason phrase of the status line e.g. "Not Found"
+     *
+     * @return the reason phrase as a String
+     */
+    public String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    /**
+     * Get all the response headers
+     *
+     * @return an array of {@link org.apache.http.Header}
+     */
+    public Header[] getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Get the length of the body, as announced by the server
+     *
+     * @return the number of bytes of the body, or a negative number if unknown
+     */
+    public long getContentLength() {
+        return entity == null ? 0 : entity.getContentLength();
+    }
+
+    /**
+     * Get the charset of the body, as declared in its Content-Type
+     *
+     * @return the declared charset, or UTF-8 if none was declared or it is not supported
+     */
+    public Charset getCharset() {
+        try {
+            ContentType type = entity == null ? null : ContentType.get(entity);
+            return type != null && type.getCharset() != null ? type.getCharset() : StandardCharsets.UTF_8;
+
+        } catch (RuntimeException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    /**
+     * Get the body as a stream read straight from the connection
+     *
+     * @return an {@link java.io.InputStream} over the body, empty if the response has no body
+     * @throws IOException if the stream cannot be opened
+     */
+    public InputStream getInputStream() throws IOException {
+        return entity == null ? new ByteArrayInputStream(new byte[0]) : entity.getContent();
+    }
+
+    /**
+     * Get the body as a channel read straight from the connection
+     *
+     * @return a {@link java.nio.channels.ReadableByteChannel} over the body
+     * @throws IOException if the stream cannot be opened
+     */
+    public ReadableByteChannel getChannel() throws IOException {
+        return Channels.newChannel(getInputStream());
+    }
+
+    /**
+     * Was the return code in the 200-299 range?
+     * (Semantically understood as a successful response)
+     *
+     * @return a boolean answering the question
+     */
+    public Boolean isSuccessful() {
+        return this.statusCode > 199 && this.statusCode < 299;
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "StreamingResponse [status=" + statusCode + ", length=" + getContentLength() + "]";
+    }
+}
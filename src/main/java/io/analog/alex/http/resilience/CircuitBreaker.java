@@ -0,0 +1,268 @@
+package io.analog.alex.http.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * The circuit breaker of a single destination. Outcomes are counted in a rolling window of 10 buckets; when
+ * the failure or slow call rate crosses its threshold the circuit opens and calls fail fast with a
+ * {@link CircuitOpenException}, until it lets a few probing calls through (half-open) to decide whether to
+ * close again. Every transition is a compare-and-set on immutable objects: no call ever takes a lock.
+ *
+ * @author Miguel Alexandre
+ */
+public class CircuitBreaker {
+    private static final int BUCKETS = 10;
+
+    /**
+     * The states of a circuit
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String key;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long bucketNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final IntPredicate failureStatus;
+
+    private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.CLOSED);
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder rejected = new LongAdder();
+
+    /* === a state, along with the probing calls left and succeeded while half-open === */
+    private static final class Phase {
+        static final Phase CLOSED = new Phase(State.CLOSED, 0, 0);
+
+        final State state;
+        final long openedAt;
+        final AtomicInteger permits;
+        final AtomicInteger successes = new AtomicInteger();
+
+        Phase(State state, long openedAt, int permits) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.permits = new AtomicInteger(permits);
+        }
+    }
+
+    /* === the outcomes counted during one slice of the window === */
+    private static final class Bucket {
+        final long epoch;
+        final int calls;
+        final int failures;
+        final int slow;
+
+        Bucket(long epoch, int calls, int failures, int slow) {
+            this.epoch = epoch;
+            this.calls = calls;
+            this.failures = failures;
+            this.slow = slow;
+        }
+    }
+
+    CircuitBreaker(String key, CircuitBreakers settings) {
+        this.key = key;
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.slowCallRateThreshold = settings.getSlowCallRateThreshold();
+        this.slowCallNanos = settings.getSlowCallDuration().toNanos();
+        this.bucketNanos = Math.max(1, settings.getWindow().toNanos() / BUCKETS);
+        this.minimumCalls = settings.getMinimumCalls();
+        this.openNanos = settings.getOpenDuration().toNanos();
+        this.halfOpenCalls = settings.getHalfOpenCalls();
+        this.failureStatus = settings.getFailureStatus();
+    }
+
+    /**
+     * Ask for the permission to send a call
+     *
+     * @throws CircuitOpenException if the circuit is open, or half-open with every probing call already let through
+     */
+    public void acquire() throws CircuitOpenException {
+        for (; ; ) {
+            Phase current = phase.get();
+
+            switch (current.state) {
+                case CLOSED:
+                    return;
+
+                case OPEN:
+                    long elapsed = System.nanoTime() - current.openedAt;
+                    if (elapsed < openNanos) {
+                        rejected.increment();
+                        throw new CircuitOpenException(key, Duration.ofNanos(openNanos - elapsed));
+                    }
+                    phase.compareAndSet(current, new Phase(State.HALF_OPEN, current.openedAt, halfOpenCalls));
+                    break;
+
+                default:
+                    /* === never below zero, so a permit released later is one that can be taken again === */
+                    int left = current.permits.get();
+                    if (left > 0) {
+                        if (current.permits.compareAndSet(left, left - 1)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    rejected.increment();
+                    throw new CircuitOpenException(key, Duration.ZERO);
+            }
+        }
+    }
+
+    /**
+     * Record the response of a permitted call
+     *
+     * @param nanos      the time to the response
+     * @param statusCode the status code of the response
+     */
+    public void onResponse(long nanos, int statusCode) {
+        record(failureStatus.test(statusCode), nanos >= slowCallNanos);
+    }
+
+    /**
+     * Record the failure of a permitted call
+     *
+     * @param nanos the time to the failure
+     */
+    public void onFailure(long nanos) {
+        record(true, nanos >= slowCallNanos);
+    }
+
+    /**
+     * Release the permission of a call whose outcome says nothing about the destination e.g. an aborted one
+     */
+    public void onIgnored() {
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            current.permits.incrementAndGet();
+        }
+    }
+
+    private void record(boolean failed, boolean slow) {
+        Phase current = phase.get();
+
+        switch (current.state) {
+            case CLOSED:
+                count(failed, slow);
+                if (isTripped()) {
+                    phase.compareAndSet(current, new Phase(State.OPEN, System.nanoTime(), 0));
+                }
+                break;
+
+            case HALF_OPEN:
+                if (failed || slow) {
+                    phase.compareAndSet(current, new Phase(State.OPEN, System.nanoTime(), 0));
+                } else if (current.successes.incrementAndGet() >= halfOpenCalls && phase.compareAndSet(current, Phase.CLOSED)) {
+                    for (int i = 0; i < BUCKETS; i++) {
+                        buckets.set(i, null);
+                    }
+                }
+                break;
+
+            default:
+                // a call let through before the circuit opened: nothing left to decide
+        }
+    }
+
+    private void count(boolean failed, boolean slow) {
+        long epoch = System.nanoTime() / bucketNanos;
+        int failures = failed ? 1 : 0;
+        int slows = slow ? 1 : 0;
+
+        buckets.updateAndGet((int) Math.floorMod(epoch, (long) BUCKETS), bucket -> bucket == null || bucket.epoch != epoch
+                ? new Bucket(epoch, 1, failures, slows)
+                : new Bucket(epoch, bucket.calls + 1, bucket.failures + failures, bucket.slow + slows));
+    }
+
+    private boolean isTripped() {
+        Bucket total = total();
+        return total.calls >= minimumCalls
+                && (total.failures >= failureRateThreshold * total.calls || total.slow >= slowCallRateThreshold * total.calls);
+    }
+
+    /* === the sum of the buckets still within the window === */
+    private Bucket total() {
+        long oldest = System.nanoTime() / bucketNanos - BUCKETS;
+        int calls = 0;
+        int failures = 0;
+        int slow = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch > oldest) {
+                calls += bucket.calls;
+                failures += bucket.failures;
+                slow += bucket.slow;
+            }
+        }
+        return new Bucket(0, calls, failures, slow);
+    }
+
+    /**
+     * Get the key of the circuit
+     *
+     * @return the key e.g. a host
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Get the state of the circuit; an open circuit past its open duration turns half-open on the next call
+     *
+     * @return the state
+     */
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * Get the share of the calls within the window that failed
+     *
+     * @return the failure rate, between 0 and 1
+     */
+    public double getFailureRate() {
+        Bucket total = total();
+        return total.calls == 0 ? 0 : (double) total.failures / total.calls;
+    }
+
+    /**
+     * Get the share of the calls within the window that were slow
+     *
+     * @return the slow call rate, between 0 and 1
+     */
+    public double getSlowCallRate() {
+        Bucket total = total();
+        return total.calls == 0 ? 0 : (double) total.slow / total.calls;
+    }
+
+    /**
+     * Get the number of calls failed fast
+     *
+     * @return the number of calls refused by the circuit
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CircuitBreaker [key=" + key + ", state=" + getState() + ", failureRate=" + getFailureRate()
+                + ", slowCallRate=" + getSlowCallRate() + ", rejected=" + rejected + "]";
+    }
+}
@@ -0,0 +1,176 @@
+package io.analog.alex.http.resilience;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntPredicate;
+
+/**
+ * The circuit breakers of a family of destinations, one per key (a host by default, or a key set on the
+ * request), created on first use with the settings of this instance
+ *
+ * @author Miguel Alexandre
+ */
+public class CircuitBreakers {
+    private double failureRateThreshold = 0.5;
+    private double slowCallRateThreshold = 1.0;
+    private Duration slowCallDuration = Duration.ofSeconds(5);
+    private Duration window = Duration.ofSeconds(10);
+    private int minimumCalls = 20;
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenCalls = 5;
+    private IntPredicate failureStatus = status -> status >= 500;
+
+    private final ConcurrentMap<String, CircuitBreaker> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Begin configuring circuit breakers with the default settings: a circuit opens when, over the last
+     * 10 seconds and at least 20 calls, half of the calls failed (an IOException or a 5xx response) or every
+     * call took over 5 seconds. It stays open for 30 seconds, then lets 5 probing calls through.
+     */
+    public CircuitBreakers() {
+        // defaults set on the attributes
+    }
+
+    /**
+     * Set the share of failed calls that opens a circuit
+     *
+     * @param failureRateThreshold the failure rate, between 0 and 1
+     * @return the reference to this class instance
+     */
+    public CircuitBreakers failureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    /**
+     * Set the share of slow calls that opens a circuit
+     *
+     * @param slowCallRateThreshold the slow call rate, between 0 and 1
+     * @return the reference to this class instance
+     */
+    public CircuitBreakers slowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        return this;
+    }
+
+    /**
+     * Set the time to the response headers beyond which a call is slow
+     *
+     * @param slowCallDuration the slow call duration
+     * @return the reference to this class instance
+     */
+    public CircuitBreakers slowCallDuration(Duration slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+        return this;
+    }
+
+    /**
+     * Set the rolling window the rates are computed over, made of 10 buckets
+     *
+     * @param window the window duration
+     * @return the reference to this class instance
+     */
+    public CircuitBreakers window(Duration window) {
+        this.window = window;
+        return this;
+    }
+
+    /**
+     * Set the calls needed within the window before the rates are considered
+     *
+     * @param minimumCalls the minimum number of calls
+     * @return the reference to this class instance
+     */
+    public CircuitBreakers minimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    /**
+     * Set how long an open circuit fails every call before letting probing calls through
+     *
+     * @param openDuration the open duration
+     * @return the reference to this class instance
+     */
+    public CircuitBreakers openDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+        return this;
+    }
+
+    /**
+     * Set the probing calls let through a half-open circuit: it closes once they all succeed, and opens
+     * again on the first one that fails
+     *
+     * @param halfOpenCalls the number of probing calls
+     * @return the reference to this class instance
+     */
+    public CircuitBreakers halfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+        return this;
+    }
+
+    /**
+     * Set the response status codes that count as failures
+     *
+     * @param failureStatus a predicate on the status code
+     * @return the reference to this class instance
+     */
+    public CircuitBreakers failureStatus(IntPredicate failureStatus) {
+        this.failureStatus = failureStatus;
+        return this;
+    }
+
+    /**
+     * Get the circuit breaker of a key, creating it on first use
+     *
+     * @param key the key e.g. a host
+     * @return the circuit breaker
+     */
+    public CircuitBreaker get(String key) {
+        CircuitBreaker circuit = circuits.get(key);
+        return circuit != null ? circuit : circuits.computeIfAbsent(key, name -> new CircuitBreaker(name, this));
+    }
+
+    /**
+     * Get every circuit breaker created so far
+     *
+     * @return the circuit breakers by key
+     */
+    public Map<String, CircuitBreaker> getAll() {
+        return circuits;
+    }
+
+    double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    Duration getWindow() {
+        return window;
+    }
+
+    int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    IntPredicate getFailureStatus() {
+        return failureStatus;
+    }
+}
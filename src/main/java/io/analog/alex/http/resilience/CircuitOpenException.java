@@ -0,0 +1,46 @@
+package io.analog.alex.http.resilience;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Signals that a request was not sent because the circuit of its destination is open
+ *
+ * @author Miguel Alexandre
+ */
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final String key;
+    private final transient Duration retryAfter;
+
+    /**
+     * Create the exception for the given circuit
+     *
+     * @param key        the key of the open circuit e.g. a host
+     * @param retryAfter the time until the circuit lets probing requests through
+     */
+    public CircuitOpenException(String key, Duration retryAfter) {
+        super("Circuit open for " + key);
+        this.key = key;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Get the key of the open circuit
+     *
+     * @return the key e.g. a host
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Get the time until the circuit lets probing requests through
+     *
+     * @return the remaining open duration, zero if the circuit is already probing
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
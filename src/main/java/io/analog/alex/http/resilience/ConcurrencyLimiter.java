@@ -0,0 +1,147 @@
+package io.analog.alex.http.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A limit on the calls in flight, either fixed or adaptive. The adaptive limit follows an AIMD scheme: it grows
+ * by one once as many calls as the limit completed without a sign of overload, and shrinks by 10% on every call
+ * that timed out or was refused with a 429 or a 503, between a minimum and a maximum.
+ *
+ * @author Miguel Alexandre
+ */
+public class ConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final AdjustableSemaphore permits;
+    private final AtomicInteger limit;
+    private final AtomicInteger successes = new AtomicInteger();
+    private final boolean adaptive;
+    private final int min;
+    private final int max;
+
+    /* === a semaphore whose permits can be taken away, even while they are in use === */
+    private static final class AdjustableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        AdjustableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        void reduce(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+
+    private ConcurrencyLimiter(int initial, int min, int max, boolean adaptive) {
+        if (min < 1 || initial < min || max < initial) {
+            throw new IllegalArgumentException("A concurrency limit needs 1 <= min <= initial <= max");
+        }
+
+        this.permits = new AdjustableSemaphore(initial);
+        this.limit = new AtomicInteger(initial);
+        this.adaptive = adaptive;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * A fixed limit
+     *
+     * @param limit the maximum number of calls in flight
+     * @return the concurrency limiter
+     */
+    public static ConcurrencyLimiter fixed(int limit) {
+        return new ConcurrencyLimiter(limit, limit, limit, false);
+    }
+
+    /**
+     * An adaptive (AIMD) limit
+     *
+     * @param initial the initial limit
+     * @param min     the lowest limit
+     * @param max     the highest limit
+     * @return the concurrency limiter
+     */
+    public static ConcurrencyLimiter adaptive(int initial, int min, int max) {
+        return new ConcurrencyLimiter(initial, min, max, true);
+    }
+
+    /**
+     * Take a slot, waiting up to the given time for one to free up
+     *
+     * @param maxWaitNanos the longest acceptable wait, in nanoseconds
+     * @return true if a slot was taken
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean tryAcquire(long maxWaitNanos) throws InterruptedException {
+        return maxWaitNanos <= 0 ? permits.tryAcquire() : permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Give back a slot, adapting the limit to the outcome of the call
+     *
+     * @param overloaded true if the call showed a sign of overload of the destination
+     */
+    public void release(boolean overloaded) {
+        permits.release();
+
+        if (!adaptive) {
+            return;
+        }
+
+        if (overloaded) {
+            successes.set(0);
+            for (; ; ) {
+                int current = limit.get();
+                int next = Math.max(min, (int) (current * BACKOFF_RATIO));
+                if (next == current || limit.compareAndSet(current, next)) {
+                    permits.reduce(current - next);
+                    return;
+                }
+            }
+        }
+
+        if (successes.incrementAndGet() >= limit.get()) {
+            successes.set(0);
+            int current = limit.get();
+            if (current < max && limit.compareAndSet(current, current + 1)) {
+                permits.release();
+            }
+        }
+    }
+
+    /* === a slot taken for a call that never started says nothing about the destination: the limit is left as is === */
+    void cancel() {
+        permits.release();
+    }
+
+    /**
+     * Get the current limit
+     *
+     * @return the maximum number of calls in flight
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * Get the number of calls waiting for a slot
+     *
+     * @return an estimate of the queue length
+     */
+    public int getQueued() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter [limit=" + limit + ", adaptive=" + adaptive + ", available=" + permits.availablePermits() + "]";
+    }
+}
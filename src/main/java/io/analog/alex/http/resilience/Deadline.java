@@ -0,0 +1,94 @@
+package io.analog.alex.http.resilience;
+
+import io.analog.alex.utils.TimerUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An armed deadline: runs an abort action unless cancelled before it expires, and turns the failure the
+ * abort causes into a {@link DeadlineExceededException}
+ *
+ * @author Miguel Alexandre
+ */
+public class Deadline {
+    private final Duration timeout;
+    private final Runnable abort;
+    private final long expiresAt;
+    private final ScheduledFuture<?> timer;
+    private boolean cancelled;
+    private volatile boolean expired;
+
+    private Deadline(Duration timeout, Runnable abort) {
+        this.timeout = timeout;
+        this.abort = abort;
+        this.expiresAt = System.nanoTime() + timeout.toNanos();
+        this.timer = TimerUtils.schedule(this::expire, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /* === synchronized with cancel: once cancel returns, the abort action either ran or never will === */
+    private synchronized void expire() {
+        if (!cancelled) {
+            expired = true;
+            abort.run();
+        }
+    }
+
+    /**
+     * Arm a deadline
+     *
+     * @param timeout the time after which the abort action runs
+     * @param abort   the abort action e.g. <code>request::abort</code>
+     * @return the armed deadline
+     */
+    public static Deadline arm(Duration timeout, Runnable abort) {
+        return new Deadline(timeout, abort);
+    }
+
+    /**
+     * Disarm the deadline, once the work it guards is over
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        timer.cancel(false);
+    }
+
+    /**
+     * Did the deadline expire i.e. did the abort action run?
+     *
+     * @return a boolean answering the question
+     */
+    public synchronized boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * Get the time left before the deadline expires
+     *
+     * @return the remaining time in nanoseconds, zero or less once it passed
+     */
+    public long remainingNanos() {
+        return expiresAt - System.nanoTime();
+    }
+
+    /**
+     * Get the timeout the deadline was armed with
+     *
+     * @return the timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Translate a failure of the guarded work
+     *
+     * @param e the failure
+     * @return a {@link DeadlineExceededException} caused by the failure if the deadline expired, the failure otherwise
+     */
+    public IOException translate(IOException e) {
+        return expired && !(e instanceof DeadlineExceededException) ? new DeadlineExceededException(timeout, e) : e;
+    }
+}
@@ -0,0 +1,24 @@
+package io.analog.alex.http.resilience;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+
+/**
+ * Signals that a request was aborted because its overall deadline passed
+ *
+ * @author Miguel Alexandre
+ */
+public class DeadlineExceededException extends InterruptedIOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the exception for the given deadline
+     *
+     * @param deadline the deadline that passed
+     * @param cause    the failure the abort caused
+     */
+    public DeadlineExceededException(Duration deadline, Throwable cause) {
+        super("Deadline of " + deadline.toMillis() + " ms exceeded");
+        initCause(cause);
+    }
+}
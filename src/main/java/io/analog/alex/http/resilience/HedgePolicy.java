@@ -0,0 +1,342 @@
+package io.analog.alex.http.resilience;
+
+import io.analog.alex.http.model.Response;
+import io.analog.alex.utils.TimerUtils;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.http.client.methods.HttpRequestBase;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A hedging policy for idempotent requests: when no response arrived after a delay, a duplicate request
+ * is sent and whichever completes first is kept, the other one being aborted. The delay is either fixed or
+ * the given percentile of the latencies observed by the policy, so that only the slowest requests are hedged.
+ * Hedges are paid for from a {@link RetryBudget}, capping the extra load they add, and the policy counts how
+ * many requests were hedged and how many hedges won.
+ *
+ * @author Miguel Alexandre
+ */
+public class HedgePolicy {
+    private static final int NONE = 0;
+    private static final int PRIMARY = 1;
+    private static final int HEDGE = 2;
+
+    private static final long REFRESH_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final double percentile;
+    private final long minSamples;
+    private volatile long delay;
+    private RetryBudget budget = new RetryBudget(0.05, 5);
+    private Executor executor;
+
+    /* === observed latencies, folded into a percentile once enough were recorded === */
+    private final Recorder recorder = new Recorder(2);
+    private final Histogram pending = new Histogram(2);
+    private Histogram interval;
+    private volatile long refreshedAt = System.nanoTime();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+
+    /**
+     * An exchange of a single request
+     */
+    @FunctionalInterface
+    public interface Exchange {
+        Response send(HttpRequestBase request) throws IOException;
+    }
+
+    private HedgePolicy(Duration delay, double percentile, long minSamples) {
+        this.delay = delay.toNanos();
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Hedge the requests still waiting for a response after a fixed delay
+     *
+     * @param delay the delay before the duplicate request is sent
+     * @return the hedging policy
+     */
+    public static HedgePolicy after(Duration delay) {
+        return new HedgePolicy(delay, 0, 0);
+    }
+
+    /**
+     * Hedge the requests slower than the given percentile of the observed latencies e.g. the 95th,
+     * using the initial delay until 100 latencies were observed
+     *
+     * @param percentile   the percentile of the latencies, between 0 and 100
+     * @param initialDelay the delay before the duplicate request is sent, until the percentile is known
+     * @return the hedging policy
+     */
+    public static HedgePolicy atPercentile(double percentile, Duration initialDelay) {
+        return new HedgePolicy(initialDelay, percentile, 100);
+    }
+
+    /**
+     * Pay for the hedges from the given budget, instead of the default one of 1 hedge every 20 requests
+     * with bursts of up to 5 hedges
+     *
+     * @param budget the hedge budget
+     * @return the reference to this class instance
+     */
+    public HedgePolicy budget(RetryBudget budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * Send the duplicate requests on the given executor, instead of a bounded pool of up to 64 daemon threads
+     * shared by the policies without an executor of their own; a duplicate the executor rejects is not sent
+     *
+     * @param executor the executor that runs the blocking duplicate requests
+     * @return the reference to this class instance
+     */
+    public HedgePolicy executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Send the primary request on the calling thread and, if it is still in flight after the delay,
+     * a duplicate on the executor. The loser is aborted; the primary request is left aborted when the
+     * duplicate wins, so the caller must reset it before sending it again.
+     *
+     * @param primary   the primary request
+     * @param duplicate a supplier of a copy of the primary request
+     * @param exchange  the exchange of a single request
+     * @return the first response
+     * @throws IOException the failure of the primary request, when the duplicate fails as well or was not sent
+     */
+    public Response execute(HttpRequestBase primary, Supplier<HttpRequestBase> duplicate, Exchange exchange) throws IOException {
+        requests.increment();
+        budget.deposit();
+
+        AtomicInteger winner = new AtomicInteger(NONE);
+        CompletableFuture<Response> hedge = new CompletableFuture<>();
+        long start = System.nanoTime();
+
+        ScheduledFuture<?> timer = TimerUtils.schedule(
+                () -> hedge(primary, duplicate, exchange, winner, hedge, start),
+                currentDelay(), TimeUnit.NANOSECONDS);
+
+        try {
+            Response response = exchange.send(primary);
+            if (winner.compareAndSet(NONE, PRIMARY)) {
+                timer.cancel(false);
+                hedge.cancel(false);
+                record(System.nanoTime() - start);
+                return response;
+            }
+            return await(hedge);
+
+        } catch (IOException e) {
+            if (timer.cancel(false)) {
+                /* === failed before the delay: nothing was hedged === */
+                throw e;
+            }
+            if (winner.get() == HEDGE) {
+                return await(hedge);
+            }
+            if (primary.isAborted()) {
+                /* === aborted by someone else e.g. a deadline: the duplicate goes down with it === */
+                hedge.cancel(false);
+                throw e;
+            }
+            try {
+                return await(hedge);
+            } catch (IOException hedgeFailure) {
+                throw e;
+            }
+        }
+    }
+
+    /* === runs on the timer: send the duplicate on the executor, unless the primary already completed === */
+    private void hedge(
+            HttpRequestBase primary,
+            Supplier<HttpRequestBase> duplicate,
+            Exchange exchange,
+            AtomicInteger winner,
+            CompletableFuture<Response> hedge,
+            long start) {
+
+        if (winner.get() != NONE || hedge.isDone() || !budget.tryWithdraw()) {
+            hedge.completeExceptionally(new IOException("Not hedged"));
+            return;
+        }
+
+        hedged.increment();
+        HttpRequestBase copy = duplicate.get();
+        Executor runner = executor != null ? executor : Duplicates.EXECUTOR;
+
+        hedge.whenComplete((response, error) -> {
+            if (hedge.isCancelled()) {
+                copy.abort();
+            }
+        });
+
+        try {
+            runner.execute(() -> {
+                try {
+                    Response response = exchange.send(copy);
+                    if (winner.compareAndSet(NONE, HEDGE)) {
+                        wins.increment();
+                        /* === the slow primaries count too, or the percentile would only ever go down === */
+                        record(System.nanoTime() - start);
+                        /* === the loser is aborted before the caller, waiting for this future, may reset it === */
+                        primary.abort();
+                    }
+                    hedge.complete(response);
+
+                } catch (IOException | RuntimeException e) {
+                    hedge.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            hedged.decrement();
+            hedge.completeExceptionally(new IOException("Not hedged", e));
+        }
+    }
+
+    private static Response await(CompletableFuture<Response> hedge) throws IOException {
+        try {
+            return hedge.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a hedged request");
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw (RuntimeException) cause;
+
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Hedged request cancelled");
+        }
+    }
+
+    private long currentDelay() {
+        if (minSamples > 0 && System.nanoTime() - refreshedAt > REFRESH_INTERVAL) {
+            refresh();
+        }
+        return delay;
+    }
+
+    private void record(long latency) {
+        if (minSamples > 0) {
+            recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+        }
+    }
+
+    private synchronized void refresh() {
+        long now = System.nanoTime();
+        if (now - refreshedAt <= REFRESH_INTERVAL) {
+            return;
+        }
+
+        refreshedAt = now;
+        interval = recorder.getIntervalHistogram(interval);
+        pending.add(interval);
+
+        if (pending.getTotalCount() >= minSamples) {
+            delay = TimeUnit.MICROSECONDS.toNanos(pending.getValueAtPercentile(percentile));
+            pending.reset();
+        }
+    }
+
+    /**
+     * Get the current delay before a duplicate request is sent
+     *
+     * @return the fixed delay, or the latest percentile of the observed latencies
+     */
+    public Duration getDelay() {
+        return Duration.ofNanos(delay);
+    }
+
+    /**
+     * Get the number of requests sent under this policy
+     *
+     * @return the number of requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Get the number of requests for which a duplicate was sent
+     *
+     * @return the number of hedged requests
+     */
+    public long getHedged() {
+        return hedged.sum();
+    }
+
+    /**
+     * Get the number of duplicates that completed before their primary request
+     *
+     * @return the number of winning hedges
+     */
+    public long getWins() {
+        return wins.sum();
+    }
+
+    /**
+     * Get the share of the requests that were hedged
+     *
+     * @return the hedge rate, between 0 and 1
+     */
+    public double getHedgeRate() {
+        long sent = requests.sum();
+        return sent == 0 ? 0 : (double) hedged.sum() / sent;
+    }
+
+    /**
+     * Get the share of the hedges that won
+     *
+     * @return the win rate, between 0 and 1
+     */
+    public double getWinRate() {
+        long sent = hedged.sum();
+        return sent == 0 ? 0 : (double) wins.sum() / sent;
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "HedgePolicy [delay=" + getDelay() + ", requests=" + requests + ", hedged=" + hedged + ", wins=" + wins + "]";
+    }
+
+    /* === created on first use; beyond 64 duplicates in flight, requests are no longer hedged === */
+    private static final class Duplicates {
+        private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(0, 64, 30, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "http-hedge");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
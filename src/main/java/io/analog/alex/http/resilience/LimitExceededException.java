@@ -0,0 +1,35 @@
+package io.analog.alex.http.resilience;
+
+import java.io.IOException;
+
+/**
+ * Signals that a request was not sent because the rate or concurrency limit of its destination was reached,
+ * and did not free up within the maximum wait
+ *
+ * @author Miguel Alexandre
+ */
+public class LimitExceededException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final String host;
+
+    /**
+     * Create the exception for the given destination
+     *
+     * @param host  the destination whose limit was reached
+     * @param limit the limit reached e.g. "rate" or "concurrency"
+     */
+    public LimitExceededException(String host, String limit) {
+        super("The " + limit + " limit of " + host + " was reached");
+        this.host = host;
+    }
+
+    /**
+     * Get the destination whose limit was reached
+     *
+     * @return the host
+     */
+    public String getHost() {
+        return host;
+    }
+}
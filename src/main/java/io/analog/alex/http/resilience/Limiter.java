@@ -0,0 +1,133 @@
+package io.analog.alex.http.resilience;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.impl.execchain.RequestAbortedException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The rate and concurrency limits of a single destination. A call first takes a slot from the concurrency limiter,
+ * then a permit from the rate limiter, waiting up to the maximum wait for both; the slot is given back, along with
+ * the outcome of the call, once the exchange is over, or right away if no permit was taken.
+ *
+ * @author Miguel Alexandre
+ */
+public class Limiter {
+    private final String host;
+    private volatile RateLimiter rate;
+    private volatile ConcurrencyLimiter concurrency;
+
+    Limiter(String host) {
+        this.host = host;
+    }
+
+    void setRate(RateLimiter rate) {
+        this.rate = rate;
+    }
+
+    void setConcurrency(ConcurrencyLimiter concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Wait for a permit and a slot
+     *
+     * @param maxWait the longest acceptable wait; zero fails fast
+     * @throws IOException a {@link LimitExceededException} if the limits did not free up in time,
+     *                     or an InterruptedIOException if interrupted while waiting
+     */
+    public void acquire(Duration maxWait) throws IOException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        boolean slot = false;
+
+        try {
+            /* === the slot is taken first, so that a call refused for concurrency never spends a rate permit === */
+            if (concurrency != null) {
+                if (!concurrency.tryAcquire(maxWait.toNanos())) {
+                    throw new LimitExceededException(host, "concurrency");
+                }
+                slot = true;
+            }
+
+            if (rate != null) {
+                long wait = rate.reserve(Math.max(0, deadline - System.nanoTime()));
+                if (wait < 0) {
+                    throw new LimitExceededException(host, "rate");
+                }
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            }
+            slot = false;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the limits of " + host);
+
+        } finally {
+            if (slot) {
+                concurrency.cancel();
+            }
+        }
+    }
+
+    /**
+     * Give back the slot of a call once its exchange is over. A 429 or 503 response and a timeout are signs of
+     * overload; a call aborted by the caller e.g. a losing hedge, is not.
+     *
+     * @param statusCode the status code of the response, if any
+     * @param failure    the failure of the call, or null
+     */
+    public void release(int statusCode, IOException failure) {
+        if (concurrency != null) {
+            concurrency.release(isOverloaded(statusCode, failure));
+        }
+    }
+
+    private static boolean isOverloaded(int statusCode, IOException failure) {
+        if (failure instanceof InterruptedIOException) {
+            return !(failure instanceof RequestAbortedException);
+        }
+        return statusCode == 429 || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE;
+    }
+
+    /**
+     * Get the destination of the limits
+     *
+     * @return the host
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Get the rate limiter of the destination
+     *
+     * @return the rate limiter, or null if the rate is not limited
+     */
+    public RateLimiter getRate() {
+        return rate;
+    }
+
+    /**
+     * Get the concurrency limiter of the destination
+     *
+     * @return the concurrency limiter, or null if the concurrency is not limited
+     */
+    public ConcurrencyLimiter getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "Limiter [host=" + host + ", rate=" + rate + ", concurrency=" + concurrency + "]";
+    }
+}
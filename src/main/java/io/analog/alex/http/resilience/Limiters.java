@@ -0,0 +1,107 @@
+package io.analog.alex.http.resilience;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The rate and concurrency limits of the destinations (hosts) that need them; requests to any other host
+ * are not limited. A request waits up to the maximum wait for the limits of its host to free up, and then
+ * fails with a {@link LimitExceededException}; a maximum wait of zero makes every request fail fast.
+ *
+ * @author Miguel Alexandre
+ */
+public class Limiters {
+    private final ConcurrentMap<String, Limiter> limiters = new ConcurrentHashMap<>();
+    private Duration maxWait = Duration.ofSeconds(1);
+
+    /**
+     * Begin configuring limits, with a maximum wait of 1 second
+     */
+    public Limiters() {
+        // defaults set on the attributes
+    }
+
+    /**
+     * Limit the rate of the requests to a host
+     *
+     * @param host             the host name e.g. <code>api.example.com</code>
+     * @param permitsPerSecond the requests per second
+     * @param burst            the requests that can be sent at once after an idle period
+     * @return the reference to this class instance
+     */
+    public Limiters rate(String host, double permitsPerSecond, int burst) {
+        limiter(host).setRate(new RateLimiter(permitsPerSecond, burst));
+        return this;
+    }
+
+    /**
+     * Limit the requests in flight to a host to a fixed number
+     *
+     * @param host  the host name
+     * @param limit the maximum number of requests in flight
+     * @return the reference to this class instance
+     */
+    public Limiters concurrency(String host, int limit) {
+        limiter(host).setConcurrency(ConcurrencyLimiter.fixed(limit));
+        return this;
+    }
+
+    /**
+     * Limit the requests in flight to a host to a number adapted to its responses (AIMD)
+     *
+     * @param host    the host name
+     * @param initial the initial limit
+     * @param min     the lowest limit
+     * @param max     the highest limit
+     * @return the reference to this class instance
+     */
+    public Limiters adaptiveConcurrency(String host, int initial, int min, int max) {
+        limiter(host).setConcurrency(ConcurrencyLimiter.adaptive(initial, min, max));
+        return this;
+    }
+
+    /**
+     * Set how long a request waits for the limits of its host to free up
+     *
+     * @param maxWait the maximum wait; zero to fail fast
+     * @return the reference to this class instance
+     */
+    public Limiters maxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+        return this;
+    }
+
+    private Limiter limiter(String host) {
+        return limiters.computeIfAbsent(host, Limiter::new);
+    }
+
+    /**
+     * Get the limits of a host
+     *
+     * @param host the host name
+     * @return the limiter, or null if requests to the host are not limited
+     */
+    public Limiter get(String host) {
+        return limiters.get(host);
+    }
+
+    /**
+     * Get the limits of every limited host
+     *
+     * @return the limiters by host
+     */
+    public Map<String, Limiter> getAll() {
+        return limiters;
+    }
+
+    /**
+     * Get how long a request waits for the limits of its host to free up
+     *
+     * @return the maximum wait
+     */
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+}
@@ -0,0 +1,78 @@
+package io.analog.alex.http.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket: permits are handed out at a steady rate, with up to a burst of them stored while
+ * idle. Rather than counting tokens, the bucket keeps the time at which the next permit is free, so taking a
+ * permit is a single compare-and-set and tells the caller how long it has to wait for it.
+ *
+ * @author Miguel Alexandre
+ */
+public class RateLimiter {
+    private final double permitsPerSecond;
+    private final long interval;
+    private final long burstNanos;
+    private final AtomicLong nextFree;
+
+    /**
+     * Create a rate limiter
+     *
+     * @param permitsPerSecond the steady rate of the permits
+     * @param burst            the permits that can be taken at once after an idle period
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("A rate limiter needs a positive rate and a burst of at least 1");
+        }
+
+        this.permitsPerSecond = permitsPerSecond;
+        this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = interval * (burst - 1);
+        this.nextFree = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * Take a permit, unless it would only be free after the given wait
+     *
+     * @param maxWaitNanos the longest acceptable wait, in nanoseconds
+     * @return the nanoseconds to wait before using the permit, or -1 if no permit was taken
+     */
+    public long reserve(long maxWaitNanos) {
+        long now = System.nanoTime();
+
+        for (; ; ) {
+            long next = nextFree.get();
+            /* === permits not taken while idle are stored, up to the burst === */
+            long free = Math.max(next, now - burstNanos);
+            long wait = free - now;
+
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (nextFree.compareAndSet(next, free + interval)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Get the steady rate of the permits
+     *
+     * @return the permits per second
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "RateLimiter [permitsPerSecond=" + permitsPerSecond + "]";
+    }
+}
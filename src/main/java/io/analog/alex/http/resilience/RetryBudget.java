@@ -0,0 +1,114 @@
+package io.analog.alex.http.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket bounding retries to a fraction of the requests: every request deposits a fraction of a
+ * token and every retry withdraws a whole one, so when a dependency fails for everyone the retries dry up
+ * instead of multiplying the load on it. The bucket is lock-free and meant to be shared.
+ *
+ * @author Miguel Alexandre
+ */
+public class RetryBudget {
+    /* === tokens are kept in thousandths, so that deposits of a fraction of a token stay integral === */
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+    private final AtomicLong withdrawn = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    /**
+     * Create a full budget
+     *
+     * @param ratio    the retries allowed per request, in the long run e.g. 0.1 for one retry every 10 requests
+     * @param capacity the retries allowed in a burst, once the bucket is full
+     */
+    public RetryBudget(double ratio, int capacity) {
+        if (ratio < 0 || capacity < 0) {
+            throw new IllegalArgumentException("The ratio and the capacity of a retry budget cannot be negative");
+        }
+
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = capacity * SCALE;
+        this.tokens = new AtomicLong(this.capacity);
+    }
+
+    /**
+     * A budget that never runs out
+     *
+     * @return an unlimited budget
+     */
+    public static RetryBudget unlimited() {
+        return new RetryBudget(0, 0) {
+            @Override
+            public boolean tryWithdraw() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Deposit the share of a request, up to the capacity of the bucket
+     */
+    public void deposit() {
+        tokens.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    /**
+     * Withdraw the token of a retry, if there is one
+     *
+     * @return true if the retry may go ahead, false if the budget is exhausted
+     */
+    public boolean tryWithdraw() {
+        for (; ; ) {
+            long current = tokens.get();
+            if (current < SCALE) {
+                exhausted.incrementAndGet();
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - SCALE)) {
+                withdrawn.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get the retries that may go ahead right now
+     *
+     * @return the whole tokens in the bucket
+     */
+    public long getAvailable() {
+        return tokens.get() / SCALE;
+    }
+
+    /**
+     * Get the number of retries the budget allowed
+     *
+     * @return the number of tokens withdrawn
+     */
+    public long getWithdrawn() {
+        return withdrawn.get();
+    }
+
+    /**
+     * Get the number of retries the budget denied
+     *
+     * @return the number of withdrawals that found the bucket empty
+     */
+    public long getExhausted() {
+        return exhausted.get();
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "RetryBudget [available=" + getAvailable() + ", withdrawn=" + withdrawn + ", exhausted=" + exhausted + "]";
+    }
+}
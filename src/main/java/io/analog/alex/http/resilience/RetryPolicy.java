@@ -0,0 +1,363 @@
+package io.analog.alex.http.resilience;
+
+import io.analog.alex.functional.monads.Either;
+import io.analog.alex.http.Http;
+import io.analog.alex.http.model.Response;
+import io.analog.alex.utils.TimerUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A declarative retry policy: which outcomes are retried, how many times and after how long. The delay before
+ * a retry is drawn at random between zero and an exponentially growing ceiling (full jitter), or taken from the
+ * Retry-After header of the response when it asks for longer. Every retry is also paid for from a
+ * {@link RetryBudget}, so that retries cannot amplify an outage. A policy holds no state of its own and can
+ * be shared by any number of requests.
+ *
+ * @author Miguel Alexandre
+ */
+public class RetryPolicy {
+    private int maxAttempts = 3;
+    private Duration baseDelay = Duration.ofMillis(100);
+    private Duration maxDelay = Duration.ofSeconds(10);
+    private boolean idempotentOnly = true;
+    private boolean respectRetryAfter = true;
+    private IntPredicate retryOnStatus = RetryPolicy::isTransientStatus;
+    private Predicate<IOException> retryOnException = RetryPolicy::isTransientFailure;
+    private RetryBudget budget;
+
+    /**
+     * An attempt at the exchange being retried
+     */
+    @FunctionalInterface
+    public interface Attempt {
+        Response call() throws IOException;
+    }
+
+    /**
+     * Begin configuring a policy with the default settings: 3 attempts of idempotent requests, retried on
+     * 429, 502, 503 and 504 responses and on connection failures, after a delay growing from 100 ms up
+     * to 10 seconds, paid for from the budget set in {@link io.analog.alex.http.Http}.
+     */
+    public RetryPolicy() {
+        // defaults set on the attributes
+    }
+
+    /**
+     * Set the maximum number of attempts, the first one included
+     *
+     * @param maxAttempts the maximum number of attempts
+     * @return the reference to this class instance
+     */
+    public RetryPolicy maxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Set the ceiling of the delay before the first retry, doubled on every retry after it
+     *
+     * @param baseDelay the base delay
+     * @return the reference to this class instance
+     */
+    public RetryPolicy baseDelay(Duration baseDelay) {
+        this.baseDelay = baseDelay;
+        return this;
+    }
+
+    /**
+     * Set the longest delay before a retry; a Retry-After asking for longer ends the retries
+     *
+     * @param maxDelay the maximum delay
+     * @return the reference to this class instance
+     */
+    public RetryPolicy maxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * Retry requests that are not idempotent (e.g. a POST) as well, which may apply them more than once
+     *
+     * @param idempotentOnly false to retry any request
+     * @return the reference to this class instance
+     */
+    public RetryPolicy idempotentOnly(boolean idempotentOnly) {
+        this.idempotentOnly = idempotentOnly;
+        return this;
+    }
+
+    /**
+     * Wait as long as the Retry-After header of a response asks for, when it is longer than the backoff
+     *
+     * @param respectRetryAfter false to ignore the header
+     * @return the reference to this class instance
+     */
+    public RetryPolicy respectRetryAfter(boolean respectRetryAfter) {
+        this.respectRetryAfter = respectRetryAfter;
+        return this;
+    }
+
+    /**
+     * Set the response status codes that are retried
+     *
+     * @param retryOnStatus a predicate on the status code
+     * @return the reference to this class instance
+     */
+    public RetryPolicy retryOnStatus(IntPredicate retryOnStatus) {
+        this.retryOnStatus = retryOnStatus;
+        return this;
+    }
+
+    /**
+     * Set the failures that are retried; a {@link DeadlineExceededException} never is
+     *
+     * @param retryOnException a predicate on the failure
+     * @return the reference to this class instance
+     */
+    public RetryPolicy retryOnException(Predicate<IOException> retryOnException) {
+        this.retryOnException = retryOnException;
+        return this;
+    }
+
+    /**
+     * Pay for the retries from the given budget, instead of the default one set in {@link io.analog.alex.http.Http}
+     *
+     * @param budget the retry budget e.g. {@link RetryBudget#unlimited()}
+     * @return the reference to this class instance
+     */
+    public RetryPolicy budget(RetryBudget budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * Does the policy retry idempotent requests only?
+     *
+     * @return a boolean answering the question
+     */
+    public boolean isIdempotentOnly() {
+        return idempotentOnly;
+    }
+
+    /**
+     * Run the attempt until its outcome is not retried, sleeping the calling thread between attempts
+     *
+     * @param retryable false if the request cannot be retried (e.g. its body can only be sent once)
+     * @param attempt   the exchange
+     * @return the response of the last attempt
+     * @throws IOException the failure of the last attempt, or an InterruptedIOException if interrupted while waiting
+     */
+    public Response execute(boolean retryable, Attempt attempt) throws IOException {
+        budget().deposit();
+
+        for (int attempted = 1; ; attempted++) {
+            Either<IOException, Response> outcome;
+            try {
+                outcome = Either.right(attempt.call());
+            } catch (IOException e) {
+                outcome = Either.left(e);
+            }
+
+            long delay = retryable ? delayBeforeRetry(attempted, outcome) : -1;
+            if (delay < 0) {
+                return outcome.attemptRightThrowIfLeft();
+            }
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry");
+            }
+        }
+    }
+
+    /**
+     * Run the asynchronous attempt until its outcome is not retried, waiting between attempts on a timer
+     * so that no thread is held; the retries start on the executor set in {@link io.analog.alex.http.Http}
+     *
+     * @param retryable false if the request cannot be retried (e.g. its body can only be sent once)
+     * @param attempt   a supplier starting a new exchange on every call
+     * @return the outcome of the last attempt as a {@link java.util.concurrent.CompletableFuture}
+     */
+    public CompletableFuture<Either<IOException, Response>> executeAsync(
+            boolean retryable,
+            Supplier<CompletableFuture<Either<IOException, Response>>> attempt) {
+
+        CompletableFuture<Either<IOException, Response>> promise = new CompletableFuture<>();
+        budget().deposit();
+        attemptAsync(retryable, attempt, 1, promise);
+        return promise;
+    }
+
+    private void attemptAsync(
+            boolean retryable,
+            Supplier<CompletableFuture<Either<IOException, Response>>> attempt,
+            int attempted,
+            CompletableFuture<Either<IOException, Response>> promise) {
+
+        CompletableFuture<Either<IOException, Response>> started;
+        try {
+            started = attempt.get();
+        } catch (RuntimeException e) {
+            promise.completeExceptionally(e);
+            return;
+        }
+
+        started.whenComplete((outcome, error) -> {
+            if (error != null) {
+                promise.completeExceptionally(error);
+                return;
+            }
+
+            long delay = retryable ? delayBeforeRetry(attempted, outcome) : -1;
+            if (delay < 0) {
+                promise.complete(outcome);
+            } else {
+                TimerUtils.schedule(() -> handOff(retryable, attempt, attempted + 1, promise), delay, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /* === the single timer thread only hands the next attempt off, as starting it (e.g. leasing a connection) may block === */
+    private void handOff(
+            boolean retryable,
+            Supplier<CompletableFuture<Either<IOException, Response>>> attempt,
+            int attempted,
+            CompletableFuture<Either<IOException, Response>> promise) {
+
+        try {
+            Http.executor().execute(() -> attemptAsync(retryable, attempt, attempted, promise));
+        } catch (RejectedExecutionException e) {
+            promise.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Get the delay before the next attempt, withdrawing its token from the budget
+     *
+     * @param attempted the number of attempts so far
+     * @param outcome   the outcome of the last attempt
+     * @return the delay in milliseconds, or -1 if the outcome is final
+     */
+    long delayBeforeRetry(int attempted, Either<IOException, Response> outcome) {
+        if (attempted >= maxAttempts) {
+            return -1;
+        }
+
+        Response response = outcome.getRight().orElse(null);
+        boolean retried = response != null
+                ? retryOnStatus.test(response.getStatusCode())
+                : !(outcome.peekError() instanceof DeadlineExceededException) && retryOnException.test(outcome.getLeft().get());
+
+        if (!retried) {
+            return -1;
+        }
+
+        long delay = backoff(attempted);
+        if (respectRetryAfter && response != null) {
+            long retryAfter = retryAfter(response);
+            if (retryAfter > maxDelay.toMillis()) {
+                return -1;
+            }
+            delay = Math.max(delay, retryAfter);
+        }
+
+        return budget().tryWithdraw() ? delay : -1;
+    }
+
+    /* === full jitter: a random delay between zero and base * 2^(attempted - 1), capped at the maximum delay === */
+    private long backoff(int attempted) {
+        long ceiling = baseDelay.toMillis() << Math.min(attempted - 1, 30);
+        if (ceiling <= 0 || ceiling > maxDelay.toMillis()) {
+            ceiling = maxDelay.toMillis();
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /* === the Retry-After header in milliseconds, written either as seconds or as an HTTP date; -1 if absent === */
+    private static long retryAfter(Response response) {
+        String value = response.findHeader(HttpHeaders.RETRY_AFTER).map(String::trim).orElse(null);
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+
+        if (Character.isDigit(value.charAt(0))) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        Date date = DateUtils.parseDate(value);
+        return date == null ? -1 : Math.max(0, date.getTime() - System.currentTimeMillis());
+    }
+
+    private RetryBudget budget() {
+        return this.budget != null ? this.budget : Http.retryBudget();
+    }
+
+    /**
+     * Is the status code one of a transient failure i.e. 429, 502, 503 or 504?
+     *
+     * @param statusCode the status code
+     * @return a boolean answering the question
+     */
+    public static boolean isTransientStatus(int statusCode) {
+        return statusCode == 429
+                || statusCode == HttpStatus.SC_BAD_GATEWAY
+                || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE
+                || statusCode == HttpStatus.SC_GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * Is the failure a transient one e.g. a connection refused or reset? Read timeouts and aborted requests are
+     * not, as the server may still be working on them, and neither are open circuits, exceeded limits, unknown
+     * hosts, TLS or protocol errors.
+     *
+     * @param e the failure
+     * @return a boolean answering the question
+     */
+    public static boolean isTransientFailure(IOException e) {
+        if (e instanceof ConnectionPoolTimeoutException || e instanceof CircuitOpenException || e instanceof LimitExceededException) {
+            return false;
+        }
+        if (e instanceof InterruptedIOException) {
+            return e instanceof ConnectTimeoutException;
+        }
+        return !(e instanceof UnknownHostException)
+                && !(e instanceof SSLException)
+                && !(e instanceof ClientProtocolException);
+    }
+
+    /**
+     * a String representation of the object instance
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "RetryPolicy [maxAttempts=" + maxAttempts + ", baseDelay=" + baseDelay + ", maxDelay=" + maxDelay
+                + ", idempotentOnly=" + idempotentOnly + "]";
+    }
+}
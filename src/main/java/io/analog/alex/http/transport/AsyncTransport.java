@@ -0,0 +1,84 @@
+package io.analog.alex.http.transport;
+
+import io.analog.alex.http.compression.Compression;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A transport over the non-blocking Apache Http Async Client: exchanges are driven by its I/O reactor and their
+ * bodies buffered in memory, so the blocking form only waits for the response to be complete
+ *
+ * @author Miguel Alexandre
+ */
+final class AsyncTransport implements Transport {
+    private final CloseableHttpAsyncClient client;
+    private final Compression compression;
+
+    AsyncTransport(CloseableHttpAsyncClient client, Compression compression) {
+        this.client = client;
+        this.compression = compression;
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpRequestBase request) throws IOException {
+        Future<HttpResponse> future = client.execute(request, null);
+        request.setCancellable(() -> future.cancel(true));
+
+        try {
+            return decode(BufferedResponse.of(future.get()));
+
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (CancellationException e) {
+            throw new RequestAbortedException("Request aborted");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void execute(HttpRequestBase request, FutureCallback<HttpResponse> callback) {
+        Future<HttpResponse> future = client.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                callback.completed(decode(response));
+            }
+
+            @Override
+            public void failed(Exception e) {
+                callback.failed(e);
+            }
+
+            @Override
+            public void cancelled() {
+                callback.cancelled();
+            }
+        });
+        request.setCancellable(() -> future.cancel(true));
+    }
+
+    /* === the async client only negotiates the coding, its response interceptors run before the body is in === */
+    private <T extends HttpResponse> T decode(T response) {
+        if (compression != null) {
+            compression.decode(response);
+        }
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+}
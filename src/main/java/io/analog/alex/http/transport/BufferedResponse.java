@@ -0,0 +1,30 @@
+package io.analog.alex.http.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.message.BasicHttpResponse;
+
+/**
+ * A response whose body is already in memory, so closing it releases nothing
+ *
+ * @author Miguel Alexandre
+ */
+final class BufferedResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+    BufferedResponse(StatusLine statusLine) {
+        super(statusLine);
+    }
+
+    static BufferedResponse of(HttpResponse response) {
+        BufferedResponse buffered = new BufferedResponse(response.getStatusLine());
+        buffered.setHeaders(response.getAllHeaders());
+        buffered.setEntity(response.getEntity());
+        return buffered;
+    }
+
+    @Override
+    public void close() {
+        // the exchange is over and its body is in memory
+    }
+}
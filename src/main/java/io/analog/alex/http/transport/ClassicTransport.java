@@ -0,0 +1,62 @@
+package io.analog.alex.http.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.HttpClientUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A transport over the blocking Apache Http Client: every exchange holds a thread, so the non-blocking form
+ * runs the blocking one on an executor
+ *
+ * @author Miguel Alexandre
+ */
+final class ClassicTransport implements Transport {
+    private final CloseableHttpClient client;
+    private final Executor executor;
+
+    ClassicTransport(CloseableHttpClient client, Executor executor) {
+        this.client = client;
+        this.executor = executor;
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpRequestBase request) throws IOException {
+        return client.execute(request);
+    }
+
+    @Override
+    public void execute(HttpRequestBase request, FutureCallback<HttpResponse> callback) {
+        try {
+            executor.execute(() -> {
+                CloseableHttpResponse response;
+                try {
+                    response = client.execute(request);
+                } catch (IOException e) {
+                    callback.failed(e);
+                    return;
+                }
+
+                /* === the body is read within the callback, before the connection goes back to the pool === */
+                try {
+                    callback.completed(response);
+                } finally {
+                    HttpClientUtils.closeQuietly(response);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            callback.failed(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+}
@@ -0,0 +1,38 @@
+package io.analog.alex.http.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The engine a {@link io.analog.alex.http.methods.Method} sends its requests with. Requests and responses keep
+ * the Apache HttpCore message model the fluent API is built on, so retries, deadlines, hedging, circuit breakers,
+ * limits, caching and metrics work the same on every transport; only the round trip itself is delegated.
+ * A transport must honour {@link HttpRequestBase#abort()}, failing the exchange with a
+ * {@link org.apache.http.impl.execchain.RequestAbortedException}. Adapters are built by {@link Transports}.
+ *
+ * @author Miguel Alexandre
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Send a request and wait for its response
+     *
+     * @param request the request
+     * @return the response, which the caller closes once its body is read
+     * @throws IOException if the exchange failed
+     */
+    CloseableHttpResponse execute(HttpRequestBase request) throws IOException;
+
+    /**
+     * Send a request without holding the calling thread
+     *
+     * @param request  the request
+     * @param callback the callback completed with the response; its body may only be read within the callback
+     */
+    void execute(HttpRequestBase request, FutureCallback<HttpResponse> callback);
+}
@@ -0,0 +1,126 @@
+package io.analog.alex.http.transport;
+
+import io.analog.alex.http.Http;
+import io.analog.alex.http.compression.Compression;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Factory of the {@link Transport} adapters: the blocking Apache Http Client, the non-blocking Apache Http Async
+ * Client and, on Java 11 and later, the <code>java.net.http.HttpClient</code> of the JDK. The same fluent request
+ * runs on any of them, set for every request with {@link Http#setTransport(Transport)} or for a single one with
+ * {@link io.analog.alex.http.methods.Method#transport(Transport)}.
+ *
+ * @author Miguel Alexandre
+ */
+public final class Transports {
+    /* === compiled for Java 11 into the versioned part of the (multi-release) jar === */
+    private static final String JDK_TRANSPORT = "io.analog.alex.http.transport.JdkTransport";
+
+    /* == hide constructor == */
+    private Transports() {
+    }
+
+    /**
+     * A transport over a blocking Apache Http Client; non-blocking calls run on the default executor of
+     * {@link Http} and hold one of its threads for the whole exchange
+     *
+     * @param client the client e.g. <code>new HttpClientConfig().build()</code>
+     * @return the transport
+     */
+    public static Transport classic(CloseableHttpClient client) {
+        return classic(client, Http.executor());
+    }
+
+    /**
+     * A transport over a blocking Apache Http Client
+     *
+     * @param client   the client
+     * @param executor the executor running the non-blocking calls
+     * @return the transport
+     */
+    public static Transport classic(CloseableHttpClient client, Executor executor) {
+        return new ClassicTransport(client, executor);
+    }
+
+    /**
+     * A transport over the default non-blocking client of {@link Http}
+     *
+     * @return the transport
+     */
+    public static Transport async() {
+        return async(Http.asyncClient(), Http.compression());
+    }
+
+    /**
+     * A transport over a non-blocking Apache Http Async Client, which holds no thread while a request is in flight.
+     * Its responses are always buffered in memory, even for the streaming executions of a request.
+     *
+     * @param client      a started client e.g. <code>new HttpClientConfig().buildAsync()</code>
+     * @param compression the compression the client negotiates, to decode the responses with; null for none
+     * @return the transport
+     */
+    public static Transport async(CloseableHttpAsyncClient client, Compression compression) {
+        return new AsyncTransport(client, compression);
+    }
+
+    /**
+     * Is the HttpClient of the JDK available i.e. is this Java 11 or later?
+     *
+     * @return a boolean answering the question
+     */
+    public static boolean isJdkAvailable() {
+        try {
+            Class.forName("java.net.http.HttpClient", false, Transports.class.getClassLoader());
+            Class.forName(JDK_TRANSPORT, false, Transports.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * A transport over a new <code>java.net.http.HttpClient</code> speaking HTTP/1.1, with the compression of
+     * the default client of {@link Http}
+     *
+     * @return the transport
+     * @throws UnsupportedOperationException before Java 11
+     */
+    public static Transport jdk() {
+        return jdk(Duration.ofSeconds(10), false, Http.compression());
+    }
+
+    /**
+     * A transport over a new <code>java.net.http.HttpClient</code>. Its request bodies are buffered in memory.
+     * Blocking requests read their responses straight from the connection, so streaming executions stream;
+     * non-blocking ones read them into memory as they arrive, without holding a thread.
+     *
+     * @param connectTimeout the connect timeout of the client
+     * @param http2          prefer HTTP/2 (negotiated with ALPN over TLS, upgraded from HTTP/1.1 in clear text)
+     * @param compression    the compression to negotiate and decode the responses with; null for none
+     * @return the transport
+     * @throws UnsupportedOperationException before Java 11
+     */
+    public static Transport jdk(Duration connectTimeout, boolean http2, Compression compression) {
+        if (!isJdkAvailable()) {
+            throw new UnsupportedOperationException("The HttpClient of the JDK needs Java 11 or later");
+        }
+
+        try {
+            Constructor<?> constructor = Class.forName(JDK_TRANSPORT)
+                    .getDeclaredConstructor(Duration.class, boolean.class, Compression.class);
+            constructor.setAccessible(true);
+            return (Transport) constructor.newInstance(connectTimeout, http2, compression);
+
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Could not create the JDK transport", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the JDK transport", e);
+        }
+    }
+}
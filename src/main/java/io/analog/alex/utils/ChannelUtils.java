@@ -0,0 +1,36 @@
+package io.analog.alex.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/* ======
+ *  Intended to be used as static methods
+ */
+public final class ChannelUtils {
+    // one fixed-size direct buffer per thread, reused across transfers
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    // hide constructor
+    private ChannelUtils() {
+    }
+
+    // copy everything from source to target, returning the number of bytes copied
+    public static long transfer(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+        buffer.clear();
+        long total = 0;
+
+        while (source.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                total += target.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        return total;
+    }
+}
@@ -4,7 +4,6 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -13,21 +12,29 @@ import java.util.Optional;
  *  Intended to be used as static methods
  */
 public final class GsonUtils {
-    // some ready-at-hand attributes
-    private static final Gson GSON = new GsonBuilder().create();
-    private static final JsonParser PARSER = new JsonParser();
+    // some ready-at-hand attributes; the shared Gson instance can be replaced once at start-up
+    private static volatile Gson gson = new GsonBuilder().create();
 
     // hide constructor
     private GsonUtils() {
     }
 
+    // the shared instance, reused by every Response instead of building one per parse
+    public static Gson gson() {
+        return gson;
+    }
+
+    public static void setGson(Gson newGson) {
+        gson = newGson;
+    }
+
     // JSON related function
     public static String json(Object src) {
-        return GSON.toJson(src);
+        return gson.toJson(src);
     }
 
     public static String jsonWrap(String memberName, Object src) {
-        return GSON.toJson(Collections.singletonMap(memberName, src));
+        return gson.toJson(Collections.singletonMap(memberName, src));
     }
 
     public static String emptyObj() {
@@ -35,12 +42,11 @@ public final class GsonUtils {
     }
 
     public static <T> T parse(String json, Class<T> classOf) {
-        JsonElement ele = PARSER.parse(json);
-        return GSON.fromJson(ele, classOf);
+        return gson.fromJson(json, classOf);
     }
 
     public static <T> T parse(JsonElement json, Class<T> classOf) {
-        return GSON.fromJson(json, classOf);
+        return gson.fromJson(json, classOf);
     }
 
     public static Optional<String> getMember(JsonObject json, String name) {
@@ -0,0 +1,88 @@
+package io.analog.alex.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the elements of a top-level JSON array, decoding one element at a time from the reader
+ * so that the whole array is never held in memory.
+ * Closing the iterator releases the underlying resource: if the array was read to its end the reader is
+ * closed first, otherwise the resource is closed straight away without reading the rest of the array.
+ *
+ * @author Miguel Alexandre
+ */
+public final class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+    private final JsonReader reader;
+    private final Gson gson;
+    private final Class<T> classOf;
+    private final Closeable resource;
+    private boolean done;
+
+    /**
+     * Start iterating over the array read by the given reader
+     *
+     * @param in       a reader positioned at the start of a JSON array
+     * @param gson     the Gson instance decoding each element
+     * @param classOf  the class of the elements
+     * @param resource the resource that owns the reader e.g. an http response
+     * @throws IOException if the reader fails
+     * @throws com.google.gson.JsonSyntaxException if the content is not a JSON array
+     */
+    public JsonArrayIterator(Reader in, Gson gson, Class<T> classOf, Closeable resource) throws IOException {
+        this.reader = new JsonReader(in);
+        this.gson = gson;
+        this.classOf = classOf;
+        this.resource = resource;
+
+        try {
+            this.reader.beginArray();
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (done) {
+            return false;
+        }
+
+        try {
+            if (reader.hasNext()) {
+                return true;
+            }
+            reader.endArray();
+            done = true;
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("JSON array has no more elements");
+        }
+        return gson.fromJson(reader, classOf);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (done) {
+                reader.close();
+            }
+        } finally {
+            resource.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.analog.alex.utils;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/* ======
+ *  Intended to be used as static methods
+ */
+public final class TimerUtils {
+    // a single daemon thread fires every timer (deadlines, back-offs...); tasks must be short
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "http-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // cancelled timers (the common case for deadlines) are dropped instead of lingering until they expire
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    // hide constructor
+    private TimerUtils() {
+    }
+
+    // run the task once, after the delay
+    public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return TIMER.schedule(task, delay, unit);
+    }
+}
@@ -0,0 +1,249 @@
+package io.analog.alex.http.transport;
+
+import io.analog.alex.http.compression.Compression;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.StatusLine;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A transport over the <code>java.net.http.HttpClient</code> of the JDK, created by {@link Transports#jdk()}.
+ * Request bodies are buffered before they are sent. The blocking form streams the response body from the
+ * connection, as the streaming executions of a {@link io.analog.alex.http.methods.Method} expect, and closing
+ * the response (or aborting the request) cancels the rest of the exchange; the non-blocking form reads it into
+ * memory as it arrives, without holding a thread. The socket timeout of a request bounds the wait for the
+ * response headers, as the JDK client has no per-read timeout.
+ *
+ * @author Miguel Alexandre
+ */
+final class JdkTransport implements Transport {
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+
+    /* === headers the JDK client sets itself and refuses to take from the caller === */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of(
+            "connection", "content-length", "date", "expect", "from", "host", "upgrade", "via", "warning",
+            "keep-alive", "proxy-connection", "transfer-encoding");
+
+    private final HttpClient client;
+    private final Compression compression;
+
+    JdkTransport(Duration connectTimeout, boolean http2, Compression compression) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.compression = compression;
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpRequestBase request) throws IOException {
+        CompletableFuture<java.net.http.HttpResponse<InputStream>> future = send(request, BodyHandlers.ofInputStream());
+
+        try {
+            return streamed(request, future.get());
+
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (CancellationException e) {
+            throw new RequestAbortedException("Request aborted");
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    @Override
+    public void execute(HttpRequestBase request, FutureCallback<HttpResponse> callback) {
+        CompletableFuture<java.net.http.HttpResponse<byte[]>> future;
+        try {
+            future = send(request, BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            callback.failed(e);
+            return;
+        }
+
+        future.whenComplete((response, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+
+            if (cause instanceof CancellationException) {
+                callback.cancelled();
+            } else if (cause != null) {
+                callback.failed(failure(cause));
+            } else {
+                callback.completed(buffered(response));
+            }
+        });
+    }
+
+    private <T> CompletableFuture<java.net.http.HttpResponse<T>> send(HttpRequestBase request, BodyHandler<T> handler) throws IOException {
+        if (compression != null) {
+            compression.process(request, null);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getURI());
+        HttpEntity entity = request instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+
+        for (Header header : request.getAllHeaders()) {
+            String name = header.getName().toLowerCase(Locale.ROOT);
+            if (!RESTRICTED_HEADERS.contains(name) && !(entity != null && HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name))) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+
+        if (entity == null) {
+            builder.method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+        } else {
+            body(request, entity, builder);
+        }
+
+        RequestConfig config = request.getConfig();
+        if (config != null && config.getSocketTimeout() > 0) {
+            builder.timeout(Duration.ofMillis(config.getSocketTimeout()));
+        }
+
+        /* === aborting the request (on a deadline, a winning hedge...) cancels the exchange === */
+        CompletableFuture<java.net.http.HttpResponse<T>> future = client.sendAsync(builder.build(), handler);
+        request.setCancellable(() -> future.cancel(true));
+        return future;
+    }
+
+    private static void body(HttpRequestBase request, HttpEntity entity, HttpRequest.Builder builder) throws IOException {
+        long length = entity.getContentLength();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(length > 0 && length < Integer.MAX_VALUE ? (int) length : 4096);
+        entity.writeTo(bytes);
+
+        Header type = entity.getContentType() != null ? entity.getContentType() : request.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        if (type != null) {
+            builder.header(HttpHeaders.CONTENT_TYPE, type.getValue());
+        }
+        if (entity.getContentEncoding() != null && request.getFirstHeader(HttpHeaders.CONTENT_ENCODING) == null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, entity.getContentEncoding().getValue());
+        }
+
+        builder.method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(bytes.toByteArray()));
+    }
+
+    /* === the body is read from the connection by the caller; the exchange is over once it is closed === */
+    private CloseableHttpResponse streamed(HttpRequestBase request, java.net.http.HttpResponse<InputStream> response) {
+        InputStream body = response.body();
+        StreamedResponse adapted = head(new StreamedResponse(statusLine(response), body), response);
+
+        /* === from now on, aborting the request cancels the body being read === */
+        request.setCancellable(() -> {
+            adapted.close();
+            return true;
+        });
+
+        long length = response.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH).orElse(-1L);
+        return decode(body(adapted, new InputStreamEntity(body, length)));
+    }
+
+    private CloseableHttpResponse buffered(java.net.http.HttpResponse<byte[]> response) {
+        BufferedResponse adapted = head(new BufferedResponse(statusLine(response)), response);
+        byte[] body = response.body();
+        return decode(body == null ? adapted : body(adapted, new ByteArrayEntity(body)));
+    }
+
+    private static StatusLine statusLine(java.net.http.HttpResponse<?> response) {
+        int code = response.statusCode();
+        ProtocolVersion version = response.version() == HttpClient.Version.HTTP_2 ? HTTP_2 : HttpVersion.HTTP_1_1;
+        return new BasicStatusLine(version, code, EnglishReasonPhraseCatalog.INSTANCE.getReason(code, Locale.ENGLISH));
+    }
+
+    private static <R extends BasicHttpResponse> R head(R adapted, java.net.http.HttpResponse<?> response) {
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            /* === HTTP/2 pseudo-headers, e.g. :status, are part of the status line === */
+            if (header.getKey().startsWith(":")) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                adapted.addHeader(header.getKey(), value);
+            }
+        }
+        return adapted;
+    }
+
+    private static <R extends BasicHttpResponse> R body(R adapted, AbstractHttpEntity entity) {
+        entity.setContentType(adapted.getFirstHeader(HttpHeaders.CONTENT_TYPE));
+        entity.setContentEncoding(adapted.getFirstHeader(HttpHeaders.CONTENT_ENCODING));
+        adapted.setEntity(entity);
+        return adapted;
+    }
+
+    private <R extends CloseableHttpResponse> R decode(R response) {
+        if (compression != null) {
+            compression.decode(response);
+        }
+        return response;
+    }
+
+    private static IOException failure(Throwable cause) {
+        return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+
+    /* === a response whose body is still on the connection: closing it cancels what is left of the exchange === */
+    private static final class StreamedResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        private final InputStream body;
+
+        StreamedResponse(StatusLine statusLine, InputStream body) {
+            super(statusLine);
+            this.body = body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                body.close();
+            } catch (IOException e) {
+                // the exchange is cancelled either way
+            }
+        }
+    }
+
+    /* === the client holds no connection once idle, and can only be closed from Java 21 on === */
+    @Override
+    public void close() throws IOException {
+        if (client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception e) {
+                throw failure(e);
+            }
+        }
+    }
+}
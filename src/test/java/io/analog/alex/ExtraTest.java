@@ -1,25 +1,101 @@
 package io.analog.alex;
 
 import io.analog.alex.functional.monads.Either;
+import com.github.tomakehurst.wiremock.WireMockServer;
 import io.analog.alex.http.Http;
+import io.analog.alex.http.cache.CacheStatistics;
+import io.analog.alex.http.cache.InMemoryResponseCache;
+import io.analog.alex.http.cache.SingleFlight;
+import io.analog.alex.http.compression.Compression;
+import io.analog.alex.http.compression.CompressionStatistics;
+import io.analog.alex.http.compression.ContentCoding;
+import io.analog.alex.http.http2.Http2Client;
+import io.analog.alex.http.http2.Http2Config;
+import io.analog.alex.http.logging.WireLogging;
+import io.analog.alex.http.metrics.HdrHistogramMetrics;
+import io.analog.alex.http.metrics.MicrometerMetrics;
+import io.analog.alex.http.metrics.Phase;
+import io.analog.alex.http.resilience.CircuitBreaker;
+import io.analog.alex.http.resilience.CircuitBreakers;
+import io.analog.alex.http.resilience.CircuitOpenException;
+import io.analog.alex.http.resilience.DeadlineExceededException;
+import io.analog.alex.http.resilience.HedgePolicy;
+import io.analog.alex.http.resilience.LimitExceededException;
+import io.analog.alex.http.resilience.Limiters;
+import io.analog.alex.http.resilience.RetryBudget;
+import io.analog.alex.http.resilience.RetryPolicy;
+import io.analog.alex.http.transport.Transport;
+import io.analog.alex.http.transport.Transports;
+import io.analog.alex.http.methods.Method;
 import io.analog.alex.http.methods.impl.Get;
+import io.analog.alex.http.model.DownloadResponse;
 import io.analog.alex.http.model.Response;
+import io.analog.alex.http.model.StreamingResponse;
+import io.analog.alex.models.Person;
+import io.analog.alex.server.H2ServerBuilder;
 import io.analog.alex.server.WireMockServerBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import io.analog.alex.http.HttpClientConfig;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.pool.PoolStats;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(Lifecycle.PER_CLASS)
@@ -57,6 +133,55 @@ public class ExtraTest {
         assertEquals(HttpStatus.SC_OK, res.getStatusCode().intValue());
     }
 
+    @Test
+    public void customExecutorTest() throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(2, r -> new Thread(r, "custom-http"));
+
+        try {
+            String thread = Http.Get(endpoint + resource + "/1")
+                    .executeAsync(pool)
+                    .thenApply(e -> Thread.currentThread().getName())
+                    .get();
+            assertEquals("custom-http", thread);
+
+            Http.setExecutor(pool);
+            Http.Get(endpoint + resource + "/1").executeToObservable()
+                    .map(r -> Thread.currentThread().getName())
+                    .test()
+                    .awaitCount(1)
+                    .assertValue("custom-http");
+
+            assertTrue(Http.Get(endpoint + resource + "/1").executeAsync().get().isRight());
+        } finally {
+            Http.setExecutor(ForkJoinPool.commonPool());
+            Http.setScheduler(Schedulers.io());
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void nonBlockingRequestTest() throws IOException, InterruptedException, ExecutionException {
+
+        CompletableFuture<Either<IOException, Response>> get = Http.Get(endpoint + resource + "/1").executeNonBlocking();
+        CompletableFuture<Either<IOException, Response>> post = Http.Post(endpoint + resource)
+                .addBody("{ \"name\": \"User\" }")
+                .executeNonBlocking();
+
+        assertEquals(HttpStatus.SC_OK, get.get().attemptRightThrowIfLeft().getStatusCode().intValue());
+        assertEquals(HttpStatus.SC_CREATED, post.get().attemptRightThrowIfLeft().getStatusCode().intValue());
+        assertTrue(Http.Get("http://localhost:1/unreachable").executeNonBlocking().get().isError());
+
+        /* === a client refusing the request outright completes it too, releasing its slot and permit === */
+        Limiters limiters = new Limiters().concurrency("localhost", 1);
+        CircuitBreakers breakers = new CircuitBreakers().minimumCalls(1);
+        for (int i = 0; i < 3; i++) {
+            Either<IOException, Response> refused = Http.Get(endpoint + resource).transport(brokenTransport())
+                    .limiters(limiters).circuitBreakers(breakers).executeNonBlocking().get();
+            assertTrue(refused.getLeft().orElse(null).getCause() instanceof IllegalStateException);
+        }
+        assertTrue(Http.Get(endpoint + resource).limiters(limiters).circuitBreakers(breakers).executeNonBlocking().get().isRight());
+    }
+
     @Test
     public void allAsyncTest() throws InterruptedException {
 
@@ -75,6 +200,588 @@ public class ExtraTest {
         assertFalse(obs.isEmpty().blockingGet());
     }
 
+    @Test
+    public void allOrderedAndUnorderedTest() {
+        Observable<Integer> ordered = Http.allOrdered(
+                Http.Get(endpoint + "/delayed"),
+                Http.Get(endpoint + "/codes/clientError"),
+                Http.Get(endpoint + "/codes/serverError"))
+                .map(e -> e.successful().getStatusCode());
+
+        ordered.test()
+                .awaitDone(5, TimeUnit.SECONDS)
+                .assertValues(200, 400, 500);
+
+        Observable<Integer> unordered = Http.allUnordered(2,
+                Http.Get(endpoint + "/delayed"),
+                Http.Get(endpoint + "/codes/clientError"))
+                .map(e -> e.successful().getStatusCode());
+
+        unordered.test()
+                .awaitDone(5, TimeUnit.SECONDS)
+                .assertValues(400, 200);
+    }
+
+    @Test
+    public void streamingResponseTest() throws IOException {
+        long expected = Files.size(Paths.get("src/test/resources/__files/json/persons.json"));
+
+        Either<IOException, Long> read = Http.Get(endpoint + resource).executeStreaming(streaming -> {
+            try (InputStream in = streaming.getInputStream()) {
+                long count = 0;
+                while (in.read() != -1) {
+                    count++;
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertEquals(expected, read.attemptRightThrowIfLeft().longValue());
+
+        Either<IOException, Object> failed = Http.Get(endpoint + resource).executeStreaming(streaming -> {
+            throw new UncheckedIOException(new IOException("handler failure"));
+        });
+        assertEquals("handler failure", failed.peekError().getMessage());
+
+        assertEquals(HttpStatus.SC_OK, Http.Get(endpoint + resource + "/1")
+                .executeStreaming(StreamingResponse::getStatusCode)
+                .successful().intValue());
+
+        /* === an unknown charset falls back to UTF-8, as for a buffered response === */
+        BasicHttpResponse bogus = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        ByteArrayEntity entity = new ByteArrayEntity(new byte[0]);
+        entity.setContentType("text/plain; charset=x-bogus");
+        bogus.setEntity(entity);
+        assertEquals(StandardCharsets.UTF_8, new StreamingResponse(bogus).getCharset());
+    }
+
+    @Test
+    public void downloadToFileTest() throws IOException {
+        Path file = Files.createTempFile("download", ".bin");
+
+        try {
+            DownloadResponse full = Http.Get(endpoint + "/download").executeToFile(file).attemptRightThrowIfLeft();
+            assertEquals(WireMockServerBuilder.BINARY.length, full.getBytes());
+            assertArrayEquals(WireMockServerBuilder.BINARY, Files.readAllBytes(file));
+
+            Files.write(file, Arrays.copyOf(WireMockServerBuilder.BINARY, WireMockServerBuilder.RESUME_OFFSET));
+            Get download = Http.Get(endpoint + "/download");
+            DownloadResponse resumed = download.executeToFile(file, true).attemptRightThrowIfLeft();
+            assertEquals(HttpStatus.SC_PARTIAL_CONTENT, resumed.getStatusCode().intValue());
+            assertEquals(WireMockServerBuilder.BINARY.length - WireMockServerBuilder.RESUME_OFFSET, resumed.getBytes());
+            assertArrayEquals(WireMockServerBuilder.BINARY, Files.readAllBytes(file));
+
+            /* === the range only applied to the resumed download === */
+            Response again = download.execute().attemptRightThrowIfLeft();
+            assertEquals(HttpStatus.SC_OK, again.getStatusCode().intValue());
+            assertEquals(WireMockServerBuilder.BINARY.length, again.getBody().length);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DownloadResponse channel = Http.Get(endpoint + "/download").executeTo(Channels.newChannel(out)).attemptRightThrowIfLeft();
+            assertEquals(WireMockServerBuilder.BINARY.length, channel.getBytes());
+            assertArrayEquals(WireMockServerBuilder.BINARY, out.toByteArray());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void responseCacheTest() throws IOException {
+
+        InMemoryResponseCache cache = new InMemoryResponseCache(16);
+        WireMockServer server = WireMockServerBuilder.serverOnPort(port);
+        server.resetRequests();
+
+        /* === fresh for 60 seconds: the second call never reaches the server === */
+        Response first = Http.Get(endpoint + "/cached").cache(cache).execute().attemptRightThrowIfLeft();
+        Response second = Http.Get(endpoint + "/cached").cache(cache).execute().attemptRightThrowIfLeft();
+
+        assertEquals(first.getContent(), second.getContent());
+        server.verify(1, getRequestedFor(urlEqualTo("/cached")));
+
+        /* === no-cache: always revalidated, the 304 is answered from the cache === */
+        Http.Get(endpoint + "/etag").cache(cache).execute().attemptRightThrowIfLeft();
+        Response revalidated = Http.Get(endpoint + "/etag").cache(cache).execute().attemptRightThrowIfLeft();
+
+        assertEquals(HttpStatus.SC_OK, revalidated.getStatusCode().intValue());
+        assertEquals(first.getContent(), revalidated.getContent());
+        server.verify(1, getRequestedFor(urlEqualTo("/etag")).withHeader("If-None-Match", equalTo("\"v1\"")));
+
+        CacheStatistics stats = cache.getStatistics();
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    public void privateResponseCacheTest() throws IOException {
+
+        InMemoryResponseCache cache = new InMemoryResponseCache(16);
+        WireMockServer server = WireMockServerBuilder.serverOnPort(port);
+
+        server.resetRequests();
+
+        /* === the cache is shared: what one caller was authorized to read is never served to another === */
+        Http.Get(endpoint + "/cached").cache(cache).addHeader("Authorization", "Bearer alice").execute().attemptRightThrowIfLeft();
+        Http.Get(endpoint + "/cached").cache(cache).execute().attemptRightThrowIfLeft();
+        server.verify(2, getRequestedFor(urlEqualTo("/cached")));
+
+        Http.Get(endpoint + "/cached/private").cache(cache).execute().attemptRightThrowIfLeft();
+        Http.Get(endpoint + "/cached/private").cache(cache).execute().attemptRightThrowIfLeft();
+        server.verify(2, getRequestedFor(urlEqualTo("/cached/private")));
+
+        /* === ... unless the response says it may be === */
+        Http.Get(endpoint + "/cached/public").cache(cache).addHeader("Authorization", "Bearer alice").execute().attemptRightThrowIfLeft();
+        Http.Get(endpoint + "/cached/public").cache(cache).execute().attemptRightThrowIfLeft();
+        server.verify(1, getRequestedFor(urlEqualTo("/cached/public")));
+
+        /* === revalidation leaves the caller's own conditional headers in place === */
+        Http.Get(endpoint + "/etag").cache(cache).execute().attemptRightThrowIfLeft();
+        Method conditional = Http.Get(endpoint + "/etag").cache(cache).addHeader("If-None-Match", "\"v0\"");
+        conditional.execute().attemptRightThrowIfLeft();
+        conditional.cache(null).execute().attemptRightThrowIfLeft();
+        server.verify(1, getRequestedFor(urlEqualTo("/etag")).withHeader("If-None-Match", equalTo("\"v0\"")));
+    }
+
+    @Test
+    public void singleFlightTest() throws InterruptedException, ExecutionException {
+
+        SingleFlight group = new SingleFlight();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            List<CompletableFuture<Either<IOException, Response>>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(Http.Get(endpoint + "/delayed").singleFlight(group).executeAsync(pool));
+            }
+
+            for (CompletableFuture<Either<IOException, Response>> call : calls) {
+                assertTrue(call.get().isRight());
+                assertSame(calls.get(0).get().getRight().get(), call.get().getRight().get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(8, group.getExecuted() + group.getCollapsed());
+        assertTrue(group.getCollapsed() > 0);
+        assertEquals(0, group.getInFlight());
+    }
+
+    @Test
+    public void singleFlightDeadlineTest() throws InterruptedException, ExecutionException {
+
+        SingleFlight group = new SingleFlight();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            /* === a follower waits no longer than its own deadline === */
+            CompletableFuture<Either<IOException, Response>> leader = Http.Get(endpoint + "/delayed").singleFlight(group).executeAsync(pool);
+            Thread.sleep(100);
+            long start = System.nanoTime();
+            Either<IOException, Response> follower = Http.Get(endpoint + "/delayed").singleFlight(group).deadline(Duration.ofMillis(100)).execute();
+            assertTrue(follower.getLeft().orElse(null) instanceof DeadlineExceededException);
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 400);
+            assertTrue(leader.get().isRight());
+
+            /* === an aborted leader hands nothing to its followers: one of them leads instead === */
+            leader = Http.Get(endpoint + "/delayed").singleFlight(group).deadline(Duration.ofMillis(200)).executeAsync(pool);
+            Thread.sleep(100);
+            assertTrue(Http.Get(endpoint + "/delayed").singleFlight(group).execute().isRight());
+            assertTrue(leader.get().getLeft().orElse(null) instanceof DeadlineExceededException);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(3, group.getExecuted());
+        assertEquals(0, group.getCollapsed());
+        assertEquals(0, group.getInFlight());
+    }
+
+    @Test
+    public void metricsTest() throws IOException {
+
+        HdrHistogramMetrics histograms = new HdrHistogramMetrics();
+        Http.Get(endpoint + resource + "/1").metrics(histograms).route("/person/{id}").execute().attemptRightThrowIfLeft();
+        Http.Get(endpoint + resource + "/1").metrics(histograms).route("/person/{id}").executeAs(Person.class).attemptRightThrowIfLeft();
+
+        HdrHistogramMetrics.RouteMetrics route = histograms.get("GET", "/person/{id}").orElseThrow(AssertionError::new);
+        assertEquals(2, route.getRequests());
+        assertEquals(2, route.getStatusCount(HttpStatus.SC_OK));
+        assertEquals(2, route.getHistogram(Phase.TOTAL).getTotalCount());
+        assertEquals(2, route.getHistogram(Phase.TIME_TO_FIRST_BYTE).getTotalCount());
+        assertEquals(1, route.getHistogram(Phase.BODY_READ).getTotalCount());
+        assertEquals(1, route.getHistogram(Phase.DESERIALIZATION).getTotalCount());
+        assertTrue(route.getBytesSent() > 0);
+        assertTrue(route.getBytesReceived() > 0);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Http.Get(endpoint + "/codes/clientError").metrics(new MicrometerMetrics(registry)).execute();
+
+        assertEquals(1, registry.get("http.client.requests").tag("status", "400").timer().count());
+        assertEquals(1, registry.get("http.client.requests.phase").tag("phase", "time_to_first_byte").timer().count());
+    }
+
+    @Test
+    public void timeoutsAndDeadlineTest() throws InterruptedException, ExecutionException {
+
+        /* === the 500 ms delay exceeds the socket timeout === */
+        Either<IOException, Response> timedOut = Http.Get(endpoint + "/delayed").timeout(Duration.ofMillis(100)).execute();
+        assertTrue(timedOut.getLeft().orElse(null) instanceof SocketTimeoutException);
+
+        /* === ... and the overall deadline, in every execution path === */
+        Method get = Http.Get(endpoint + "/delayed").deadline(Duration.ofMillis(100));
+        assertTrue(get.execute().getLeft().orElse(null) instanceof DeadlineExceededException);
+        assertTrue(get.executeNonBlocking().get().getLeft().orElse(null) instanceof DeadlineExceededException);
+        assertTrue(get.executeAs(Person.class).getLeft().orElse(null) instanceof DeadlineExceededException);
+
+        /* === an aborted request can be executed again === */
+        assertTrue(get.deadline(Duration.ofSeconds(5)).execute().isRight());
+    }
+
+    @Test
+    public void retryPolicyTest() throws InterruptedException, ExecutionException {
+        WireMockServer server = WireMockServerBuilder.serverOnPort(port);
+        RetryPolicy policy = new RetryPolicy().baseDelay(Duration.ofMillis(10)).budget(RetryBudget.unlimited());
+
+        /* === the first 503 is retried, in every execution path === */
+        server.resetScenarios();
+        assertEquals(HttpStatus.SC_OK, (int) Http.Get(endpoint + "/flaky").retry(policy).execute().successful().getStatusCode());
+        server.resetScenarios();
+        assertEquals(HttpStatus.SC_OK, (int) Http.Get(endpoint + "/flaky").retry(policy).executeAsync().get().successful().getStatusCode());
+        server.resetScenarios();
+        assertEquals(HttpStatus.SC_OK, (int) Http.Get(endpoint + "/flaky").retry(policy).executeNonBlocking().get().successful().getStatusCode());
+
+        /* === up to the maximum attempts, and never for a POST === */
+        assertEquals(HttpStatus.SC_SERVICE_UNAVAILABLE, (int) Http.Get(endpoint + "/unavailable").retry(policy).execute().successful().getStatusCode());
+        server.verify(3, getRequestedFor(urlEqualTo("/unavailable")));
+        Http.Post(endpoint + "/unavailable").retry(policy).execute();
+        server.verify(1, postRequestedFor(urlEqualTo("/unavailable")));
+
+        /* === an exhausted budget stops the retries === */
+        RetryBudget budget = new RetryBudget(0, 1);
+        Http.Get(endpoint + "/unavailable").retry(new RetryPolicy().baseDelay(Duration.ofMillis(10)).budget(budget)).execute();
+        server.verify(5, getRequestedFor(urlEqualTo("/unavailable")));
+        assertEquals(1, budget.getWithdrawn());
+        assertEquals(1, budget.getExhausted());
+
+        /* === a retry runs off the timer thread, and an attempt that throws fails the call === */
+        List<String> threads = new ArrayList<>();
+        CompletableFuture<Either<IOException, Response>> failed = policy.executeAsync(true, () -> {
+            threads.add(Thread.currentThread().getName());
+            if (threads.size() > 1) {
+                throw new IllegalStateException("refused");
+            }
+            return CompletableFuture.completedFuture(Either.left(new IOException("transient")));
+        });
+        ExecutionException thrown = assertThrows(ExecutionException.class, failed::get);
+        assertTrue(thrown.getCause() instanceof IllegalStateException);
+        assertNotEquals("http-timer", threads.get(1));
+    }
+
+    @Test
+    public void hedgedRequestTest() {
+        WireMockServer server = WireMockServerBuilder.serverOnPort(port);
+        HedgePolicy policy = HedgePolicy.after(Duration.ofSeconds(1)).budget(RetryBudget.unlimited());
+
+        /* === the first request takes 5 seconds: once it reached the server, the next ones are served at once === */
+        ExecutorService stubber = Executors.newSingleThreadExecutor();
+        stubber.execute(() -> {
+            while (server.findAll(getRequestedFor(urlEqualTo("/hedged"))).isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            server.stubFor(get(urlEqualTo("/hedged")).atPriority(1).willReturn(aResponse().withStatus(200)));
+        });
+
+        try {
+            /* === ... so its duplicate wins === */
+            Get get = Http.Get(endpoint + "/hedged").timeout(Duration.ofSeconds(10)).hedge(policy);
+            long start = System.nanoTime();
+            assertTrue(get.execute().isRight());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+            assertEquals(1, policy.getHedged());
+            assertEquals(1, policy.getWins());
+            assertTrue(Thread.getAllStackTraces().keySet().stream().anyMatch(thread -> "http-hedge".equals(thread.getName())));
+
+            /* === the aborted request can be executed again, and a fast one is not hedged === */
+            assertTrue(get.execute().isRight());
+            assertEquals(2, policy.getRequests());
+            assertEquals(0.5, policy.getHedgeRate());
+        } finally {
+            stubber.shutdown();
+        }
+    }
+
+    @Test
+    public void circuitBreakerTest() throws InterruptedException, ExecutionException {
+        CircuitBreakers breakers = new CircuitBreakers().minimumCalls(4).openDuration(Duration.ofMillis(200)).halfOpenCalls(1);
+
+        /* === 4 server errors open the circuit of the host === */
+        for (int i = 0; i < 4; i++) {
+            Http.Get(endpoint + "/codes/serverError").circuitBreakers(breakers).execute();
+        }
+        CircuitBreaker circuit = breakers.get("localhost:" + port);
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+
+        /* === every request to the host now fails fast === */
+        assertTrue(Http.Get(endpoint + resource).circuitBreakers(breakers).execute().getLeft().orElse(null) instanceof CircuitOpenException);
+        assertTrue(Http.Get(endpoint + resource).circuitBreakers(breakers).executeNonBlocking().get().getLeft().orElse(null) instanceof CircuitOpenException);
+        assertEquals(2, circuit.getRejected());
+
+        /* === until a probing request succeeds and closes it === */
+        TimeUnit.MILLISECONDS.sleep(250);
+        assertTrue(Http.Get(endpoint + resource).circuitBreakers(breakers).execute().isRight());
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+    }
+
+    @Test
+    public void circuitBreakerPermitsTest() throws InterruptedException, CircuitOpenException {
+        CircuitBreakers breakers = new CircuitBreakers().minimumCalls(1).openDuration(Duration.ofMillis(50)).halfOpenCalls(1);
+        CircuitBreaker circuit = breakers.get("localhost:" + port);
+        circuit.onFailure(0);
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        /* === the single probing permit is taken, and the calls refused meanwhile do not use up the next ones === */
+        circuit.acquire();
+        for (int i = 0; i < 3; i++) {
+            assertThrows(CircuitOpenException.class, circuit::acquire);
+        }
+        circuit.onIgnored();
+        circuit.acquire();
+        circuit.onIgnored();
+
+        /* === a probing call failing in the client, not at the destination, gives its permit back === */
+        for (int i = 0; i < 3; i++) {
+            Method broken = Http.Get(endpoint + resource).circuitBreakers(breakers).transport(brokenTransport());
+            assertThrows(IllegalStateException.class, broken::execute);
+        }
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuit.getState());
+        assertTrue(Http.Get(endpoint + resource).circuitBreakers(breakers).execute().isRight());
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+    }
+
+    @Test
+    public void limitersTest() throws InterruptedException, ExecutionException {
+        Limiters limiters = new Limiters().rate("localhost", 2, 1).maxWait(Duration.ZERO);
+
+        /* === the burst of 1 is spent by the first request, the next permit is only free in 500 ms === */
+        assertTrue(Http.Get(endpoint + resource).limiters(limiters).execute().isRight());
+        assertTrue(Http.Get(endpoint + resource).limiters(limiters).execute().getLeft().orElse(null) instanceof LimitExceededException);
+
+        /* === a longer wait lets the request through once the permit is free === */
+        limiters.maxWait(Duration.ofSeconds(1));
+        assertTrue(Http.Get(endpoint + resource).limiters(limiters).execute().isRight());
+
+        /* === a single slot is held by the streaming request, so the one sent meanwhile fails fast === */
+        Limiters slots = new Limiters().concurrency("localhost", 1).maxWait(Duration.ZERO);
+        Either<IOException, IOException> nested = Http.Get(endpoint + resource).limiters(slots)
+                .executeStreaming(streaming -> Http.Get(endpoint + resource).limiters(slots).executeNonBlocking().join().getLeft().orElse(null));
+
+        assertTrue(nested.getRight().orElse(null) instanceof LimitExceededException);
+        assertTrue(Http.Get(endpoint + resource).limiters(slots).executeNonBlocking().get().isRight());
+        assertEquals(1, slots.get("localhost").getConcurrency().getLimit());
+
+        /* === a request refused for concurrency does not spend a rate permit: the second one of the burst is left === */
+        Limiters both = new Limiters().rate("localhost", 0.5, 2).concurrency("localhost", 1).maxWait(Duration.ZERO);
+        nested = Http.Get(endpoint + resource).limiters(both)
+                .executeStreaming(streaming -> Http.Get(endpoint + resource).limiters(both).executeNonBlocking().join().getLeft().orElse(null));
+
+        assertTrue(nested.getRight().orElse(null) instanceof LimitExceededException);
+        assertTrue(Http.Get(endpoint + resource).limiters(both).execute().isRight());
+    }
+
+    @Test
+    public void compressionTest() throws InterruptedException, ExecutionException {
+        Compression compression = new Compression();
+        CloseableHttpClient client = new HttpClientConfig().compression(compression).build();
+
+        /* === gzip and zstd responses are decoded, and the wire bytes are counted apart from the decoded ones === */
+        for (String coding : Arrays.asList("gzip", "zstd")) {
+            Response response = Http.Get(endpoint + "/compressed/" + coding).setClient(client).execute().getRight().orElseThrow(AssertionError::new);
+            assertEquals(WireMockServerBuilder.PEOPLE, response.getContent());
+            assertFalse(response.findHeader("Content-Encoding").isPresent());
+        }
+
+        CompressionStatistics received = compression.getResponseStatistics();
+        assertEquals(2L * WireMockServerBuilder.PEOPLE.length(), received.getUncompressedBytes());
+        assertTrue(received.getRatio() > 5);
+        assertTrue(WireMockServerBuilder.serverOnPort(port).findAll(getRequestedFor(urlEqualTo("/compressed/zstd"))).get(0).getHeader("Accept-Encoding").contains("zstd"));
+
+        /* === ... on the non-blocking client too === */
+        Response nonBlocking = Http.Get(endpoint + "/compressed/zstd").executeNonBlocking().get().getRight().orElseThrow(AssertionError::new);
+        assertEquals(WireMockServerBuilder.PEOPLE, nonBlocking.getContent());
+
+        /* === request bodies are compressed from the threshold up === */
+        Compression uploads = new Compression().compressRequests(ContentCoding.GZIP, 1024);
+        assertEquals(200, Http.Post(endpoint + "/compressed/upload").compression(uploads)
+                .addBody(WireMockServerBuilder.PEOPLE).setClient(client).execute().getRight().get().getStatusCode());
+        assertEquals(415, Http.Post(endpoint + "/compressed/upload").compression(uploads)
+                .addBody("{}").setClient(client).execute().getRight().get().getStatusCode());
+
+        CompressionStatistics sent = uploads.getRequestStatistics();
+        assertEquals(WireMockServerBuilder.PEOPLE.length(), sent.getUncompressedBytes());
+        assertTrue(sent.getCompressedBytes() > 0 && sent.getSavedBytes() > 0);
+    }
+
+    @Test
+    public void http2Test() throws InterruptedException, ExecutionException {
+        String h2endpoint = "http://localhost:" + H2ServerBuilder.start();
+        Http2Client client = new Http2Config().maxConcurrentStreams(50).initialWindowSize(1 << 20).build();
+
+        try {
+            /* === concurrent requests to a host are streams of one connection === */
+            Method[] requests = new Method[20];
+            for (int i = 0; i < requests.length; i++) {
+                requests[i] = Http.Get(h2endpoint + "/people/" + i).http2(client);
+            }
+
+            List<Either<IOException, Response>> responses = Http.allUnordered(20, requests).toList().blockingGet();
+            assertEquals(20, responses.size());
+            responses.forEach(response -> assertEquals(H2ServerBuilder.PERSON, response.getRight().orElseThrow(AssertionError::new).getContent()));
+            assertEquals(1, H2ServerBuilder.connections().size());
+
+            /* === ... on the non-blocking path, and with bodies === */
+            Response nonBlocking = Http.Get(h2endpoint + "/people/1").http2(client).executeNonBlocking().get().getRight().orElseThrow(AssertionError::new);
+            assertEquals(200, nonBlocking.getStatusCode());
+            assertEquals(H2ServerBuilder.PERSON, nonBlocking.getContent());
+
+            Response echo = Http.Post(h2endpoint + "/people").http2(client).addBody("{\"id\":2}").execute().getRight().orElseThrow(AssertionError::new);
+            assertEquals("{\"id\":2}", echo.getContent());
+            assertEquals(1, H2ServerBuilder.connections().size());
+
+        } finally {
+            client.close();
+            H2ServerBuilder.stop();
+        }
+    }
+
+    @Test
+    public void transportsTest() throws InterruptedException, ExecutionException, IOException {
+        assertTrue(Transports.isJdkAvailable());
+        Response expected = Http.Get(endpoint + resource + "/1").execute().successful();
+
+        List<Transport> transports = Arrays.asList(
+                Transports.classic(new HttpClientConfig().build()),
+                Transports.async(),
+                Transports.jdk());
+
+        /* === the same fluent requests, blocking and non-blocking, on every transport === */
+        for (Transport transport : transports) {
+            Response get = Http.Get(endpoint + resource + "/1").transport(transport).execute().getRight().orElseThrow(AssertionError::new);
+            assertEquals(expected.getContent(), get.getContent());
+            assertEquals("application/json", get.getHeader("Content-Type"));
+
+            Response post = Http.Post(endpoint + resource).transport(transport).addBodyAsJson(expected.parseAs(Person.class))
+                    .executeNonBlocking().get().getRight().orElseThrow(AssertionError::new);
+            assertEquals(HttpStatus.SC_CREATED, post.getStatusCode().intValue());
+
+            Response compressed = Http.Get(endpoint + "/compressed/gzip").transport(transport).execute().getRight().orElseThrow(AssertionError::new);
+            assertEquals(WireMockServerBuilder.PEOPLE, compressed.getContent());
+
+            /* === ... and aborted by a deadline === */
+            Method delayed = Http.Get(endpoint + "/delayed").transport(transport).deadline(Duration.ofMillis(100));
+            assertTrue(delayed.execute().getLeft().orElse(null) instanceof DeadlineExceededException);
+            assertTrue(delayed.executeNonBlocking().get().getLeft().orElse(null) instanceof DeadlineExceededException);
+        }
+
+        /* === the JDK transport streams blocking bodies from the connection, for the streaming executions === */
+        try (CloseableHttpResponse streamed = transports.get(2).execute(new HttpGet(endpoint + "/download"))) {
+            assertTrue(streamed.getEntity().isStreaming());
+            assertFalse(streamed.getEntity().isRepeatable());
+        }
+        Path file = Files.createTempFile("download", ".bin");
+        try {
+            assertEquals(WireMockServerBuilder.BINARY.length,
+                    Http.Get(endpoint + "/download").transport(transports.get(2)).executeToFile(file).attemptRightThrowIfLeft().getBytes());
+            assertArrayEquals(WireMockServerBuilder.BINARY, Files.readAllBytes(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        /* === a default transport applies to every request === */
+        try {
+            Http.setTransport(transports.get(2));
+            assertTrue(Http.Get(endpoint + resource).executeAsync().get().isRight());
+        } finally {
+            Http.setTransport(null);
+        }
+
+        transports.get(0).close();
+        transports.get(2).close();
+    }
+
+    @Test
+    public void compactResponseTest() throws IOException {
+        BasicHttpResponse latin1 = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        latin1.addHeader("content-type", "text/plain; charset=ISO-8859-1");
+        latin1.setEntity(new ByteArrayEntity("Olá, café".getBytes(StandardCharsets.ISO_8859_1), ContentType.create("text/plain", StandardCharsets.ISO_8859_1)));
+
+        /* === the raw bytes are kept, and decoded with the charset of the response === */
+        Response text = new Response(latin1) {
+        };
+        assertEquals(9, text.getBody().length);
+        assertEquals(StandardCharsets.ISO_8859_1, text.getCharset());
+        assertEquals("Olá, café", text.getContent());
+
+        /* === headers are looked up ignoring case === */
+        assertEquals("text/plain; charset=ISO-8859-1", text.getHeader("Content-Type"));
+        assertEquals("text/plain; charset=ISO-8859-1", text.findHeader("CONTENT-TYPE").orElse(null));
+        assertEquals("No Header with key NONE", text.getHeader("NONE"));
+
+        /* === the JSON tree is memoized, but every caller binds objects of its own === */
+        Response json = Http.Get(endpoint + resource).execute().successful();
+        assertSame(json.parseAsGson(), json.parseAsGson());
+        Collection<Person> mine = json.parseAsCollectionOf(Person.class);
+        mine.add(new Person());
+        mine.iterator().next().setName("Changed");
+        Collection<Person> theirs = json.parseAsCollectionOf(Person.class);
+        assertEquals(mine.size() - 1, theirs.size());
+        assertFalse(theirs.stream().anyMatch(person -> "Changed".equals(person.getName())));
+        assertEquals(json.parseAsGson().getAsJsonArray().size(), json.parseAsCollectionOf(Person.class).size());
+        assertEquals(json.getContent(), new String(json.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void wireLoggingTest() throws InterruptedException, ExecutionException {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        WireLogging logging = new WireLogging()
+                .sample(0)
+                .sample("/person/{id}", 1)
+                .maxBodyBytes(16)
+                .executor(Runnable::run)
+                .sink(lines::add);
+
+        /* === only the sampled route is logged, with a redacted Authorization and a truncated body === */
+        Http.Get(endpoint + resource).wireLogging(logging).execute();
+        assertTrue(lines.isEmpty());
+
+        Http.Get(endpoint + resource + "/1").wireLogging(logging).route("/person/{id}")
+                .addHeader("Authorization", "Bearer secret").execute();
+        assertEquals(1, lines.size());
+
+        String line = lines.get(0);
+        assertTrue(line.startsWith("GET " + endpoint + resource + "/1 -> 200 in "));
+        assertTrue(line.contains("> Authorization: [REDACTED]"));
+        assertFalse(line.contains("secret"));
+        assertTrue(line.contains("< Content-Type: application/json"));
+        assertTrue(line.contains(" more bytes)"));
+
+        /* === ... on the non-blocking path, and for failures === */
+        Http.Post(endpoint + resource).wireLogging(logging).route("/person/{id}").addBody("{\"name\":\"User\"}")
+                .executeNonBlocking().get();
+        assertTrue(lines.get(1).startsWith("POST " + endpoint + resource + " -> 201"));
+        assertTrue(lines.get(1).contains("> {\"name\":\"User\"}"));
+
+        Http.Get("http://localhost:1/unreachable").wireLogging(logging).route("/person/{id}").execute();
+        assertTrue(lines.get(2).startsWith("GET http://localhost:1/unreachable -> failed"));
+
+        /* === toString no longer holds the whole body === */
+        Response people = Http.Get(endpoint + "/compressed/gzip").execute().successful();
+        assertTrue(people.toString().length() < 1100);
+        assertEquals(WireMockServerBuilder.PEOPLE, people.getContent());
+    }
+
     @Test
     public void reactiveCallTest() throws InterruptedException {
         Http.Get(endpoint + resource).executeToObservable().test().assertNoErrors();
@@ -91,4 +798,74 @@ public class ExtraTest {
 
         assertTrue(one.execute().isRight());
     }
+
+    /* == a transport whose client is no longer usable == */
+    private static Transport brokenTransport() {
+        return new Transport() {
+            @Override
+            public CloseableHttpResponse execute(HttpRequestBase request) {
+                throw new IllegalStateException("Connection pool shut down");
+            }
+
+            @Override
+            public void execute(HttpRequestBase request, FutureCallback<HttpResponse> callback) {
+                throw new IllegalStateException("Request cannot be executed; I/O reactor status: STOPPED");
+            }
+
+            @Override
+            public void close() {
+                // nothing to release
+            }
+        };
+    }
+
+    @Test
+    public void pooledClientConfigTest() throws IOException {
+        HttpRoute route = new HttpRoute(new HttpHost("localhost", port));
+
+        Http.configure(new HttpClientConfig()
+                .maxTotal(50)
+                .maxPerRoute(10)
+                .maxForHost(new HttpHost("localhost", port), 5)
+                .validateAfterInactivity(Duration.ofSeconds(1))
+                .evictIdleConnections(Duration.ofSeconds(10))
+                .timeToLive(Duration.ofMinutes(1)));
+
+        assertTrue(Http.Get(endpoint + resource + "/1").execute().isRight());
+
+        PoolStats stats = Http.routeStats().get(route);
+        assertEquals(5, stats.getMax());
+        assertEquals(0, stats.getLeased());
+        assertEquals(1, stats.getAvailable());
+        assertEquals(50, Http.poolStats().getMax());
+
+        /* === building another client from the configuration leaves the statistics on the default one === */
+        try (CloseableHttpClient other = Http.closableHttpClient()) {
+            assertEquals(5, Http.poolStats(route).getMax());
+        }
+
+        /* === https routes are secure, and a host without a port gets its scheme's default one === */
+        Http.configure(new HttpClientConfig().maxForHost(new HttpHost("api.example.com", -1, "https"), 3));
+        assertEquals(3, Http.poolStats(new HttpRoute(new HttpHost("api.example.com", 443, "https"), null, true)).getMax());
+    }
+
+    @Test
+    public void reconfigureClosesClientsTest() throws IOException {
+        CloseableHttpClient mine = HttpClients.createMinimal();
+
+        /* === the clients built from a configuration are closed once replaced... === */
+        Http.configure(new HttpClientConfig());
+        CloseableHttpAsyncClient async = Http.asyncClient();
+        Http.configure(new HttpClientConfig());
+        assertFalse(async.isRunning());
+
+        /* === ... the ones set by the caller are not === */
+        try {
+            Http.setClient(mine);
+            Http.configure(new HttpClientConfig());
+            assertTrue(Http.Get(endpoint + resource + "/1").setClient(mine).execute().isRight());
+        } finally {
+            mine.close();
+        }
+    }
 }
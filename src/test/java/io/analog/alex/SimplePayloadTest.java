@@ -2,12 +2,18 @@ package io.analog.alex;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
 import io.analog.alex.http.Http;
 import io.analog.alex.http.model.Form;
+import io.analog.alex.http.model.JsonEntity;
 import io.analog.alex.http.model.UrlEncodedForm;
 import io.analog.alex.models.Person;
 import io.analog.alex.server.WireMockServerBuilder;
+import io.reactivex.subscribers.TestSubscriber;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -20,11 +26,19 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(Lifecycle.PER_CLASS)
 public class SimplePayloadTest {
@@ -85,6 +99,55 @@ public class SimplePayloadTest {
                 () -> assertEquals(10, listOfPersons.stream().map(Person::getId).reduce((x, y) -> x + y).get()));
     }
 
+    @Test
+    public void fetchAndDeserializeFromStreamTest() throws IOException {
+        Person person = Http.Get(endpoint + resource + "/1")
+                .executeAs(Person.class)
+                .attemptRightThrowIfLeft();
+
+        assertEquals("Miguel Alexandre", person.getName());
+
+        List<Person> listOfPersons = Http.Get(endpoint + resource)
+                .executeAs(new TypeToken<List<Person>>() {
+                })
+                .attemptRightThrowIfLeft();
+
+        assertEquals(4, listOfPersons.size());
+
+        Throwable error = Http.Get(endpoint + "/codes/clientError")
+                .executeAs(Person.class)
+                .peekError();
+
+        assertEquals(400, ((HttpResponseException) error).getStatusCode());
+    }
+
+    @Test
+    public void streamCollectionElementsTest() throws IOException {
+        TestSubscriber<Person> subscriber = Http.Get(endpoint + resource)
+                .executeToFlowableOf(Person.class)
+                .test(2);
+
+        subscriber.awaitCount(2).assertValueCount(2).assertNotComplete();
+        subscriber.requestMore(10).awaitDone(5, TimeUnit.SECONDS).assertValueCount(4).assertComplete();
+
+        Http.Get(endpoint + resource)
+                .executeToObservableOf(Person.class)
+                .map(Person::getId)
+                .test()
+                .awaitDone(5, TimeUnit.SECONDS)
+                .assertValues(1L, 2L, 3L, 4L);
+
+        try (Stream<Person> persons = Http.Get(endpoint + resource).executeToStreamOf(Person.class).attemptRightThrowIfLeft()) {
+            assertEquals(10, persons.mapToLong(Person::getId).sum());
+        }
+
+        try (Stream<Person> persons = Http.Get(endpoint + resource).executeToStreamOf(Person.class).attemptRightThrowIfLeft()) {
+            assertEquals(1, persons.findFirst().map(Person::getId).orElse(0L).longValue());
+        }
+
+        assertThrows(JsonSyntaxException.class, () -> Http.Get(endpoint + resource + "/1").executeToStreamOf(Person.class));
+    }
+
     @Test
     public void simpleJsonPayloadTest() {
 
@@ -137,6 +200,45 @@ public class SimplePayloadTest {
         assertEquals(201, responseCode.intValue());
     }
 
+    @Test
+    public void objectAsJsonPayloadTest() throws IOException {
+        Person person = new Person();
+        person.setName("User");
+
+        Integer responseCode = Http.Post(endpoint + resource + "-withBody")
+                .addParameter("name", "User")
+                .addBodyAsJson(person)
+                .executeToOptional()
+                .orElseThrow(NoSuchElementException::new)
+                .getStatusCode();
+
+        assertEquals(201, responseCode.intValue());
+
+        JsonEntity entity = new JsonEntity(person, true);
+        assertTrue(entity.isRepeatable());
+        assertTrue(entity.isChunked());
+        assertEquals(-1, entity.getContentLength());
+        assertEquals("{\"name\":\"User\"}", EntityUtils.toString(entity));
+        assertFalse(new JsonEntity(person).isRepeatable());
+    }
+
+    @Test
+    public void objectAsJsonPayloadWriteFailureTest() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        Person person = new Person();
+        person.setName(String.join("", Collections.nCopies(16 * 1024, "x")));
+
+        /* === larger than the writer's buffer, so the failure happens while Gson is still writing === */
+        IOException e = assertThrows(IOException.class, () -> new JsonEntity(person).writeTo(broken));
+        assertEquals("Broken pipe", e.getMessage());
+    }
+
     @Test
     public void formDataPayloadTest() {
         Form data = new Form()
@@ -18,6 +18,9 @@ import org.junit.jupiter.api.TestInstance.Lifecycle;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -84,6 +87,27 @@ public class SimpleRequestsTest {
         assertEquals(HttpStatus.SC_OK, getWithParamsResponse.getStatusCode().intValue());
     }
 
+    @Test
+    public void bulkParametersTest() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("name", "User");
+        parameters.put("age", 99);
+
+        Response response = Http.Get(endpoint + resource + "-withParams")
+                .addParameters(parameters)
+                .executeToOptional()
+                .orElseThrow(NoSuchElementException::new);
+
+        assertEquals(HttpStatus.SC_OK, response.getStatusCode().intValue());
+
+        URI uri = Http.Get(endpoint + "/search?q=text")
+                .addParameters("tag", Arrays.asList("a", "b c"))
+                .addParameter("page", "2")
+                .getURI();
+
+        assertEquals(endpoint + "/search?q=text&tag=a&tag=b+c&page=2", uri.toString());
+    }
+
     @Test
     public void getRequestAlternativeTest() throws URISyntaxException {
         URI url = new URI(endpoint + resource);
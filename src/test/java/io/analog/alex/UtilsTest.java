@@ -1,5 +1,7 @@
 package io.analog.alex;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import io.analog.alex.models.Person;
@@ -10,6 +12,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class UtilsTest {
@@ -62,4 +65,18 @@ public class UtilsTest {
         property = GsonUtils.getMember(jObj, "name");
         assertFalse(property.isPresent());
     }
+
+    @Test
+    public void sharedGsonTest() {
+        Gson original = GsonUtils.gson();
+        assertSame(original, GsonUtils.gson());
+
+        try {
+            GsonUtils.setGson(new GsonBuilder().serializeNulls().create());
+            assertEquals("{\"id\":null,\"name\":\"name\",\"age\":null,\"job\":null,\"details\":null}",
+                    GsonUtils.json(GsonUtils.parse("{\"name\":\"name\"}", Person.class)));
+        } finally {
+            GsonUtils.setGson(original);
+        }
+    }
 }
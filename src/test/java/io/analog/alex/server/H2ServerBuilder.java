@@ -0,0 +1,71 @@
+package io.analog.alex.server;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.AsyncResponseBuilder;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An h2c (HTTP/2 with prior knowledge) server echoing the body of the requests, or answering with a person
+ * when there is none, and keeping track of the connections it served
+ */
+public class H2ServerBuilder {
+    public static final String PERSON = "{\"id\":1,\"name\":\"Miguel Alexandre\",\"age\":27}";
+
+    private static final Set<SocketAddress> CONNECTIONS = ConcurrentHashMap.newKeySet();
+    private static HttpAsyncServer server;
+
+    public static int start() throws ExecutionException, InterruptedException {
+        server = H2ServerBootstrap.bootstrap()
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_2)
+                .register("*", new AsyncServerRequestHandler<Message<HttpRequest, String>>() {
+                    @Override
+                    public AsyncRequestConsumer<Message<HttpRequest, String>> prepare(HttpRequest request, EntityDetails details, HttpContext context) {
+                        return new BasicRequestConsumer<>(new StringAsyncEntityConsumer());
+                    }
+
+                    @Override
+                    public void handle(Message<HttpRequest, String> message, ResponseTrigger trigger, HttpContext context) throws org.apache.hc.core5.http.HttpException, java.io.IOException {
+                        CONNECTIONS.add(HttpCoreContext.adapt(context).getEndpointDetails().getRemoteAddress());
+
+                        String body = message.getBody() != null ? message.getBody() : PERSON;
+                        trigger.submitResponse(AsyncResponseBuilder.create(200)
+                                .setEntity(body, ContentType.APPLICATION_JSON)
+                                .build(), context);
+                    }
+                })
+                .create();
+
+        server.start();
+        InetSocketAddress address = (InetSocketAddress) server.listen(new InetSocketAddress(0), URIScheme.HTTP).get().getAddress();
+        return address.getPort();
+    }
+
+    public static Set<SocketAddress> connections() {
+        return CONNECTIONS;
+    }
+
+    public static void stop() {
+        if (server != null) {
+            server.close(CloseMode.IMMEDIATE);
+        }
+    }
+}
@@ -1,26 +1,43 @@
 package io.analog.alex.server;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
-
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.analog.alex.http.compression.ContentCoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
 import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
 import static com.github.tomakehurst.wiremock.client.WireMock.delete;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.patch;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 
 public class WireMockServerBuilder {
     private static final Map<Integer, WireMockServer> SERVERS = new HashMap<>();
 
+    public static final byte[] BINARY = binary(100_000);
+    public static final int RESUME_OFFSET = 40_000;
+    public static final String PEOPLE = people(500);
+
     public static void startOnPort(Integer port) {
 
-        WireMockServer server = new WireMockServer(port);
+        // the stubs set their own Content-Encoding; Jetty's gzip would also add a Vary header, uncacheable
+        WireMockServer server = new WireMockServer(options().port(port).gzipDisabled(true));
         server.start();
         setupStubs(server);
         SERVERS.put(port, server);
@@ -35,6 +52,11 @@ public class WireMockServerBuilder {
         }
     }
 
+    public static WireMockServer serverOnPort(Integer port) {
+
+        return SERVERS.get(port);
+    }
+
     public static void stopAll() {
         SERVERS.entrySet().forEach(e -> e.getValue().stop());
     }
@@ -46,6 +68,12 @@ public class WireMockServerBuilder {
         personCrudStubs(server);
         headersStubs(server);
         queryParamsStubs(server);
+        delayedStubs(server);
+        downloadStubs(server);
+        cacheStubs(server);
+        retryStubs(server);
+        hedgeStubs(server);
+        compressionStubs(server);
     }
 
     // fill the server
@@ -164,4 +192,157 @@ public class WireMockServerBuilder {
                         .withStatus(201)
                         .withBodyFile("json/persons.json")));
     }
+
+    private static void delayedStubs(WireMockServer server) {
+        server.stubFor(get(urlEqualTo("/delayed"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withStatus(200)
+                        .withFixedDelay(500)
+                        .withBodyFile("json/person.json")));
+    }
+
+    private static void downloadStubs(WireMockServer server) {
+        server.stubFor(get(urlEqualTo("/download"))
+                .withHeader("Range", absent())
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/octet-stream")
+                        .withStatus(200)
+                        .withBody(BINARY)));
+
+        server.stubFor(get(urlEqualTo("/download"))
+                .withHeader("Range", equalTo("bytes=" + RESUME_OFFSET + "-"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/octet-stream")
+                        .withStatus(206)
+                        .withBody(Arrays.copyOfRange(BINARY, RESUME_OFFSET, BINARY.length))));
+    }
+
+    private static void cacheStubs(WireMockServer server) {
+        server.stubFor(get(urlEqualTo("/cached"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Cache-Control", "max-age=60")
+                        .withStatus(200)
+                        .withBodyFile("json/person.json")));
+
+        server.stubFor(get(urlEqualTo("/cached/private"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Cache-Control", "private, max-age=60")
+                        .withStatus(200)
+                        .withBodyFile("json/person.json")));
+
+        server.stubFor(get(urlEqualTo("/cached/public"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Cache-Control", "public, max-age=60")
+                        .withStatus(200)
+                        .withBodyFile("json/person.json")));
+
+        server.stubFor(get(urlEqualTo("/etag"))
+                .atPriority(2)
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Cache-Control", "no-cache")
+                        .withHeader("ETag", "\"v1\"")
+                        .withStatus(200)
+                        .withBodyFile("json/person.json")));
+
+        server.stubFor(get(urlEqualTo("/etag"))
+                .atPriority(1)
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse()
+                        .withHeader("ETag", "\"v1\"")
+                        .withStatus(304)));
+    }
+
+    private static byte[] binary(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return bytes;
+    }
+
+    private static void retryStubs(WireMockServer server) {
+        server.stubFor(any(urlEqualTo("/unavailable"))
+                .willReturn(aResponse()
+                        .withHeader("Retry-After", "0")
+                        .withStatus(503)));
+
+        server.stubFor(get(urlEqualTo("/flaky"))
+                .inScenario("flaky")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                        .withStatus(503))
+                .willSetStateTo("recovered"));
+
+        server.stubFor(get(urlEqualTo("/flaky"))
+                .inScenario("flaky")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withStatus(200)
+                        .withBodyFile("json/person.json")));
+    }
+
+    private static void hedgeStubs(WireMockServer server) {
+        server.stubFor(get(urlEqualTo("/hedged"))
+                .atPriority(2)
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withStatus(200)
+                        .withFixedDelay(5000)
+                        .withBodyFile("json/person.json")));
+    }
+
+    private static void compressionStubs(WireMockServer server) {
+        server.stubFor(get(urlEqualTo("/compressed/gzip"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Content-Encoding", "gzip")
+                        .withStatus(200)
+                        .withBody(compress(PEOPLE, ContentCoding.GZIP))));
+
+        server.stubFor(get(urlEqualTo("/compressed/zstd"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Content-Encoding", "zstd")
+                        .withStatus(200)
+                        .withBody(compress(PEOPLE, ContentCoding.ZSTD))));
+
+        server.stubFor(post(urlEqualTo("/compressed/upload"))
+                .atPriority(1)
+                .withHeader("Content-Encoding", equalTo("gzip"))
+                .willReturn(aResponse()
+                        .withStatus(200)));
+
+        server.stubFor(post(urlEqualTo("/compressed/upload"))
+                .atPriority(2)
+                .willReturn(aResponse()
+                        .withStatus(415)));
+    }
+
+    private static String people(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"id\":").append(i)
+                    .append(",\"name\":\"Person ").append(i)
+                    .append("\",\"age\":").append(20 + i % 50)
+                    .append(",\"job\":\"Software Dev\",\"details\":\"Interest in Computer Science\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static byte[] compress(String content, ContentCoding coding) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = coding.encoder(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
 }